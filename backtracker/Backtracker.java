@@ -1,5 +1,9 @@
 package backtracker;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
 /**
  * This class represents the classic recursive backtracking algorithm.
  * It has a solver that can take a valid configuration and return a
@@ -12,6 +16,11 @@ public class Backtracker {
      * Should debug output be enabled?
      */
     private boolean debug;
+
+    /*
+     * States already searched, or null to search without a table.
+     */
+    private TranspositionTable table;
     
     /**
      * Initialize a new backtracker
@@ -25,6 +34,36 @@ public class Backtracker {
         }
     }
     
+    /**
+     * Use a transposition table to skip states which were already
+     * searched through a different order of moves. Only configurations
+     * which implement HashedConfiguration are looked up.
+     * 
+     * @param table The table to use, or null to search without one
+     */
+    public void setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Look a configuration up in the transposition table and add it if
+     * it is new.
+     * 
+     * @param config The configuration about to be searched
+     * @return true if the same state was searched before
+     */
+    private boolean seenBefore(Object config) {
+        if (table == null || !(config instanceof HashedConfiguration)) {
+            return false;
+        }
+        long hash = ((HashedConfiguration) config).getStateHash();
+        if (table.contains(hash)) {
+            return true;
+        }
+        table.add(hash);
+        return false;
+    }
+
     /**
      * A utility routine for printing out various debug messages.
      * 
@@ -32,7 +71,7 @@ public class Backtracker {
      *  successor, e.g.)
      * @param config The config to display
      */
-    private void debugPrint(String msg, Configuration config) {
+    private void debugPrint(String msg, Object config) {
         if (this.debug) {
             System.out.println(msg + ":\n" + config);
         }
@@ -50,8 +89,14 @@ public class Backtracker {
             debugPrint("\tGoal config", config);
             return config;
         } else {
-            for (Configuration child : config.getSuccessors()) {
+            Iterator<Configuration> children = config.successors();
+            while (children.hasNext()) {
+                Configuration child = children.next();
                 if (child.isValid()) {
+                    if (seenBefore(child)) {
+                        debugPrint("\tRepeated successor", child);
+                        continue;
+                    }
                     debugPrint("\tValid successor", child);
                     Configuration sol = solve(child);
                     if(sol != null) {
@@ -65,4 +110,55 @@ public class Backtracker {
         } 
         return null;
     }
+
+    /**
+     * Try find a solution, if one exists, by searching a single
+     * configuration in place. Moves are applied and undone on the
+     * one object instead of building a new configuration per successor.
+     * If a solution is found the configuration is left in the goal state.
+     * 
+     * @param config A valid configuration
+     * @param <M> The type of a move
+     * @return The moves leading to a goal, or null if no solution
+     */
+    public <M> List<M> solveInPlace(MutableConfiguration<M> config) {
+        List<M> path = new ArrayList<>();
+        if (solveInPlace(config, path)) {
+            return path;
+        }
+        return null;
+    }
+
+    /**
+     * The recursive half of solveInPlace().
+     * 
+     * @param config The configuration being searched
+     * @param path The moves applied so far
+     * @return true if config is now in a goal state
+     */
+    private <M> boolean solveInPlace(MutableConfiguration<M> config, List<M> path) {
+        debugPrint("Current config", config);
+        if (config.isGoal()) {
+            debugPrint("\tGoal config", config);
+            return true;
+        }
+        for (M move : config.getMoves()) {
+            config.apply(move);
+            if (config.isValid() && seenBefore(config)) {
+                debugPrint("\tRepeated successor", config);
+            } else if (config.isValid()) {
+                debugPrint("\tValid successor", config);
+                path.add(move);
+                if (solveInPlace(config, path)) {
+                    return true;
+                }
+                path.remove(path.size() - 1);
+            } else {
+                debugPrint("\tInvalid successor", config);
+            }
+            config.undo(move);
+            // explicit backtracking happens here
+        }
+        return false;
+    }
 }
@@ -1,6 +1,7 @@
 package backtracker;
 
 import java.util.Collection;
+import java.util.Iterator;
 
 /**
  * The representation of a single configuration for a puzzle.
@@ -17,6 +18,18 @@ public interface Configuration {
      * @return All successors, valid and invalid
      */
     public Collection<Configuration> getSuccessors();
+
+    /**
+     * Get the successors one at a time. The backtracker only asks for
+     * the next successor once it is done with the previous one, so a
+     * configuration that builds its successors lazily never pays for
+     * the ones after a solution. By default this walks getSuccessors().
+     * 
+     * @return An iterator over all successors, valid and invalid
+     */
+    public default Iterator<Configuration> successors() {
+        return getSuccessors().iterator();
+    }
     
     /**
      * Is the current configuration valid or not?
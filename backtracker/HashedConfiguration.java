@@ -0,0 +1,17 @@
+package backtracker;
+
+/**
+ * Implemented next to Configuration or MutableConfiguration by puzzles
+ * which can hash their current state cheaply, typically with a Zobrist
+ * hash kept up to date as moves are made. Two states which are the same
+ * puzzle position must return the same hash however they were reached,
+ * which lets the backtracker skip positions it has already searched.
+ */
+public interface HashedConfiguration {
+    /**
+     * Get the hash of the current state.
+     * 
+     * @return A 64 bit hash of the puzzle position
+     */
+    public long getStateHash();
+}
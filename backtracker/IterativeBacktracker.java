@@ -0,0 +1,339 @@
+package backtracker;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The backtracking algorithm without recursion. The search keeps its
+ * own stack of successor iterators on the heap, so the depth of the
+ * search is not limited by the thread stack. A search can be given a
+ * node, depth and wall-clock budget and can be cancelled from another
+ * thread, in which case it stops cleanly and reports why through
+ * getStatus().
+ */
+public class IterativeBacktracker {
+    /*
+     * Should debug output be enabled?
+     */
+    private boolean debug;
+
+    /*
+     * States already searched, or null to search without a table.
+     */
+    private TranspositionTable table;
+
+    private long nodeLimit = Long.MAX_VALUE;
+    private int depthLimit = Integer.MAX_VALUE;
+    private long timeLimitNanos = Long.MAX_VALUE;
+
+    private volatile boolean cancelled;
+    private SearchStatus status = SearchStatus.NOT_RUN;
+    private long nodes;
+    private long deadline;
+    private boolean depthCut;
+
+    /**
+     * Initialize a new iterative backtracker with no limits.
+     *
+     * @param debug Is debugging output enabled?
+     */
+    public IterativeBacktracker(boolean debug) {
+        this.debug = debug;
+        if (this.debug) {
+            System.out.println("backtracker.IterativeBacktracker debugging enabled...");
+        }
+    }
+
+    /**
+     * Stop the search after visiting this many configurations.
+     *
+     * @param nodeLimit The maximum number of configurations to visit
+     */
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Do not look at configurations deeper than this. The start
+     * configuration is at depth 0.
+     *
+     * @param depthLimit The maximum depth to search
+     */
+    public void setDepthLimit(int depthLimit) {
+        this.depthLimit = depthLimit;
+    }
+
+    /**
+     * Stop the search once it has run for this long.
+     *
+     * @param millis The wall-clock budget in milliseconds
+     */
+    public void setTimeLimit(long millis) {
+        this.timeLimitNanos = millis * 1_000_000L;
+    }
+
+    /**
+     * Ask a search to stop. Safe to call from any thread, the search
+     * notices before it visits the next configuration. If no search is
+     * running the next one stops straight away, so a cancel() made just
+     * as a search starts is never lost. The request is used up when a
+     * search finishes.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * @return How the last search ended
+     */
+    public SearchStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return How many configurations the last search visited
+     */
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * Use a transposition table to skip states which were already
+     * searched through a different order of moves. Only configurations
+     * which implement HashedConfiguration are looked up. With a depth
+     * limit, a state is only skipped if it was searched before with at
+     * least as many levels left below it, so a state first reached too
+     * deep to finish is searched again when it is reached higher up.
+     * 
+     * @param table The table to use, or null to search without one
+     */
+    public void setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Look a configuration up in the transposition table and add it if
+     * it is new or was only searched with less depth left.
+     * 
+     * @param config The configuration about to be searched
+     * @param depth The depth of the configuration, the start being 0
+     * @return true if the same state was searched before at least as deep
+     */
+    private boolean seenBefore(Object config, int depth) {
+        if (table == null || !(config instanceof HashedConfiguration)) {
+            return false;
+        }
+        long hash = ((HashedConfiguration) config).getStateHash();
+        int left = depthLimit == Integer.MAX_VALUE ? Integer.MAX_VALUE : depthLimit - depth;
+        if (table.contains(hash, left)) {
+            return true;
+        }
+        table.add(hash, left);
+        return false;
+    }
+
+    /**
+     * A utility routine for printing out various debug messages.
+     *
+     * @param msg The type of config being looked at
+     * @param config The config to display
+     */
+    private void debugPrint(String msg, Object config) {
+        if (this.debug) {
+            System.out.println(msg + ":\n" + config);
+        }
+    }
+
+    /**
+     * Reset the counters before a search starts.
+     */
+    private void start() {
+        nodes = 0;
+        depthCut = false;
+        status = SearchStatus.NOT_RUN;
+        long now = System.nanoTime();
+        deadline = timeLimitNanos == Long.MAX_VALUE ? Long.MAX_VALUE : now + timeLimitNanos;
+    }
+
+    /**
+     * Check the budgets before visiting another configuration.
+     *
+     * @return true if the search has to stop; status says why
+     */
+    private boolean outOfBudget() {
+        if (cancelled) {
+            status = SearchStatus.CANCELLED;
+            return true;
+        }
+        if (nodes >= nodeLimit) {
+            status = SearchStatus.NODE_LIMIT;
+            return true;
+        }
+        // The clock is read every node: a single node can be slow, so
+        // reading it every so many nodes could overrun the budget badly.
+        if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+            status = SearchStatus.TIME_LIMIT;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Try find a solution, if one exists, for a given configuration.
+     *
+     * @param config A valid configuration
+     * @return A solution config, or null if no solution was found;
+     *  getStatus() tells whether the search finished or was stopped
+     */
+    public Configuration solve(Configuration config) {
+        try {
+            return search(config);
+        } finally {
+            cancelled = false;
+        }
+    }
+
+    private Configuration search(Configuration config) {
+        start();
+        nodes++;
+        debugPrint("Current config", config);
+        if (config.isGoal()) {
+            debugPrint("\tGoal config", config);
+            status = SearchStatus.SOLVED;
+            return config;
+        }
+
+        Deque<Iterator<Configuration>> stack = new ArrayDeque<>();
+        if (depthLimit > 0) {
+            stack.push(config.successors());
+        } else {
+            depthCut = true;
+        }
+
+        while (!stack.isEmpty()) {
+            Iterator<Configuration> children = stack.peek();
+            if (!children.hasNext()) {
+                stack.pop();
+                // backtracking happens here
+                continue;
+            }
+            if (outOfBudget()) {
+                return null;
+            }
+
+            Configuration child = children.next();
+            if (!child.isValid()) {
+                debugPrint("\tInvalid successor", child);
+                continue;
+            }
+            if (seenBefore(child, stack.size())) {
+                debugPrint("\tRepeated successor", child);
+                continue;
+            }
+            nodes++;
+            debugPrint("\tValid successor", child);
+            if (child.isGoal()) {
+                debugPrint("\tGoal config", child);
+                status = SearchStatus.SOLVED;
+                return child;
+            }
+            if (stack.size() >= depthLimit) {
+                depthCut = true;
+            } else {
+                stack.push(child.successors());
+            }
+        }
+
+        status = depthCut ? SearchStatus.DEPTH_LIMIT : SearchStatus.NO_SOLUTION;
+        return null;
+    }
+
+    /**
+     * Try find a solution, if one exists, by searching a single
+     * configuration in place. If a solution is found the configuration is
+     * left in the goal state, otherwise every move is undone again.
+     *
+     * @param config A valid configuration
+     * @param <M> The type of a move
+     * @return The moves leading to a goal, or null if no solution was found;
+     *  getStatus() tells whether the search finished or was stopped
+     */
+    public <M> List<M> solveInPlace(MutableConfiguration<M> config) {
+        try {
+            return searchInPlace(config);
+        } finally {
+            cancelled = false;
+        }
+    }
+
+    private <M> List<M> searchInPlace(MutableConfiguration<M> config) {
+        start();
+        nodes++;
+        debugPrint("Current config", config);
+        List<M> path = new ArrayList<>();
+        if (config.isGoal()) {
+            status = SearchStatus.SOLVED;
+            return path;
+        }
+
+        // stack.size() is always path.size() + 1, the top iterator holds the
+        // moves still to try from the state path leads to.
+        Deque<Iterator<M>> stack = new ArrayDeque<>();
+        if (depthLimit > 0) {
+            stack.push(config.getMoves().iterator());
+        } else {
+            depthCut = true;
+        }
+
+        while (!stack.isEmpty()) {
+            Iterator<M> moves = stack.peek();
+            if (!moves.hasNext()) {
+                stack.pop();
+                if (!path.isEmpty()) {
+                    // backtracking happens here
+                    config.undo(path.remove(path.size() - 1));
+                }
+                continue;
+            }
+            if (outOfBudget()) {
+                while (!path.isEmpty()) {
+                    config.undo(path.remove(path.size() - 1));
+                }
+                return null;
+            }
+
+            M move = moves.next();
+            config.apply(move);
+            if (!config.isValid()) {
+                debugPrint("\tInvalid successor", config);
+                config.undo(move);
+                continue;
+            }
+            if (seenBefore(config, path.size() + 1)) {
+                debugPrint("\tRepeated successor", config);
+                config.undo(move);
+                continue;
+            }
+            nodes++;
+            path.add(move);
+            debugPrint("\tValid successor", config);
+            if (config.isGoal()) {
+                debugPrint("\tGoal config", config);
+                status = SearchStatus.SOLVED;
+                return path;
+            }
+            if (path.size() >= depthLimit) {
+                depthCut = true;
+                config.undo(path.remove(path.size() - 1));
+            } else {
+                stack.push(config.getMoves().iterator());
+            }
+        }
+
+        status = depthCut ? SearchStatus.DEPTH_LIMIT : SearchStatus.NO_SOLUTION;
+        return null;
+    }
+}
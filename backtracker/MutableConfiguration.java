@@ -0,0 +1,50 @@
+package backtracker;
+
+import java.util.Collection;
+
+/**
+ * A configuration which is searched in place. Instead of building a new
+ * configuration for every successor, the backtracker applies a move,
+ * looks at the result and undoes the move again, so one object is reused
+ * for the whole search.
+ *
+ * @param <M> the type of a move
+ */
+public interface MutableConfiguration<M> {
+    /**
+     * Get the moves which can be tried from the current state.
+     * The backtracker applies and undoes moves while walking this
+     * collection, so it must not be a live view of the state.
+     *
+     * @return All moves, whether they lead somewhere valid or not
+     */
+    public Collection<M> getMoves();
+
+    /**
+     * Change the current state by making a move.
+     *
+     * @param move One of the moves from getMoves()
+     */
+    public void apply(M move);
+
+    /**
+     * Put the state back to how it was before the matching apply().
+     * Moves are always undone most recent first.
+     *
+     * @param move The move which was last applied
+     */
+    public void undo(M move);
+
+    /**
+     * Is the current state valid or not?
+     *
+     * @return true if valid; false otherwise
+     */
+    public boolean isValid();
+
+    /**
+     * Is the current state a goal?
+     * @return true if goal; false otherwise
+     */
+    public boolean isGoal();
+}
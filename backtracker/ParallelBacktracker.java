@@ -0,0 +1,199 @@
+package backtracker;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The backtracking algorithm spread over a ForkJoinPool. The top levels
+ * of the search tree are split into one task per valid successor, which
+ * idle workers steal from each other. Only levels with a real choice
+ * count towards the split depth, a chain of configurations with one
+ * valid successor each is walked down by the task that reached it. Below the split depth each task
+ * searches its subtree on its own with an explicit stack. The first
+ * solution found wins and every other task stops at its next step.
+ *
+ * Successors handed to different tasks are searched at the same time,
+ * so a configuration's successors must not share mutable state with
+ * each other or with their parent.
+ */
+public class ParallelBacktracker {
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final int splitDepth;
+
+    private final AtomicReference<Configuration> solution = new AtomicReference<>();
+    private volatile boolean cancelled;
+
+    /**
+     * Initialize a parallel backtracker with its own pool.
+     *
+     * @param parallelism How many worker threads to search with
+     * @param splitDepth How many branching levels of the tree are split into tasks
+     */
+    public ParallelBacktracker(int parallelism, int splitDepth) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.ownsPool = true;
+        this.splitDepth = splitDepth;
+    }
+
+    /**
+     * Initialize a parallel backtracker which runs on an existing pool.
+     *
+     * @param pool The pool to run the search tasks on
+     * @param splitDepth How many branching levels of the tree are split into tasks
+     */
+    public ParallelBacktracker(ForkJoinPool pool, int splitDepth) {
+        this.pool = pool;
+        this.ownsPool = false;
+        this.splitDepth = splitDepth;
+    }
+
+    /**
+     * Try find a solution, if one exists, for a given configuration.
+     * Blocks until a solution is found, the tree is exhausted or the
+     * search is cancelled.
+     *
+     * @param config A valid configuration
+     * @return A solution config, or null if no solution
+     */
+    public Configuration solve(Configuration config) {
+        solution.set(null);
+        try {
+            if (config.isGoal()) {
+                return config;
+            }
+            pool.invoke(new SearchTask(config, 0));
+            return solution.get();
+        } finally {
+            cancelled = false;
+        }
+    }
+
+    /**
+     * Ask a search to stop. Every task stops at its next step and
+     * solve() returns whatever was found so far. If no search is running
+     * the next one stops straight away, so a cancel() made just as a
+     * search starts is never lost. The request is used up when a search
+     * finishes.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Shut down the worker threads if this backtracker made its own pool.
+     */
+    public void shutdown() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @return true once a solution has been found or the search was cancelled
+     */
+    private boolean stopped() {
+        return cancelled || solution.get() != null;
+    }
+
+    /**
+     * Search one subtree on the current thread with an explicit stack,
+     * stopping as soon as any task has found a solution.
+     *
+     * @param config The root of the subtree, already known to be valid
+     */
+    private void searchSubtree(Configuration config) {
+        Deque<Iterator<Configuration>> stack = new ArrayDeque<>();
+        stack.push(config.successors());
+        while (!stack.isEmpty() && !stopped()) {
+            Iterator<Configuration> children = stack.peek();
+            if (!children.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            Configuration child = children.next();
+            if (!child.isValid()) {
+                continue;
+            }
+            if (child.isGoal()) {
+                solution.compareAndSet(null, child);
+                return;
+            }
+            stack.push(child.successors());
+        }
+    }
+
+    /**
+     * A task which either splits its configuration's valid successors
+     * into more tasks or, past the split depth, searches them itself.
+     */
+    private class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Configuration config;
+        private final int depth;
+
+        SearchTask(Configuration config, int depth) {
+            this.config = config;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (stopped()) {
+                return;
+            }
+            if (depth >= splitDepth) {
+                searchSubtree(config);
+                return;
+            }
+
+            // Walk down while there is only one way to go, so forced
+            // moves don't use up the split depth.
+            List<Configuration> valid = validSuccessors(config);
+            while (valid != null && valid.size() == 1) {
+                valid = validSuccessors(valid.get(0));
+            }
+            if (valid == null) {
+                return;
+            }
+
+            List<SearchTask> tasks = new ArrayList<>(valid.size());
+            for (Configuration child : valid) {
+                tasks.add(new SearchTask(child, depth + 1));
+            }
+            invokeAll(tasks);
+        }
+
+        /**
+         * @param node A valid configuration which isn't a goal
+         * @return node's valid successors, or null if one was a goal or
+         * the search has stopped
+         */
+        private List<Configuration> validSuccessors(Configuration node) {
+            List<Configuration> valid = new ArrayList<>();
+            Iterator<Configuration> children = node.successors();
+            while (children.hasNext()) {
+                if (stopped()) {
+                    return null;
+                }
+                Configuration child = children.next();
+                if (!child.isValid()) {
+                    continue;
+                }
+                if (child.isGoal()) {
+                    solution.compareAndSet(null, child);
+                    return null;
+                }
+                valid.add(child);
+            }
+            return valid;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package backtracker;
+
+/**
+ * How a search run by the backtracker.IterativeBacktracker ended.
+ */
+public enum SearchStatus {
+    NOT_RUN("Not Run"), // No search has been started yet.
+    SOLVED("Solved"), // A goal configuration was found.
+    NO_SOLUTION("No Solution"), // The whole tree was searched without finding a goal.
+    DEPTH_LIMIT("Depth Limit"), // No goal above the depth limit, deeper branches were skipped.
+    NODE_LIMIT("Node Limit"), // Stopped after visiting the maximum number of configurations.
+    TIME_LIMIT("Time Limit"), // Stopped when the wall-clock budget ran out.
+    CANCELLED("Cancelled"); // Stopped because cancel() was called.
+
+    private final String status;
+
+    private SearchStatus(String status) {
+        this.status = status;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
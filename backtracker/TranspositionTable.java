@@ -0,0 +1,177 @@
+package backtracker;
+
+import java.util.Arrays;
+
+/**
+ * A bounded set of state hashes the backtracker has already searched.
+ * Hashes live in an open addressed array and each one may only sit in
+ * a short probe window starting at its home slot. When a window is full
+ * a clock sweep over it evicts the first hash which has not been looked
+ * up since the sweep last passed, so lookups and inserts are O(1) and
+ * the table never grows past its capacity.
+ *
+ * Each hash also keeps how many more levels the search was allowed to
+ * go below that state, so a search with a depth limit only skips a
+ * state that was already searched at least as deep.
+ *
+ * Not thread safe.
+ */
+public class TranspositionTable {
+    /*
+     * How many slots a hash may be placed in, starting at its home slot.
+     */
+    private static final int WINDOW = 8;
+
+    private static final byte EMPTY = 0;
+    private static final byte PRESENT = 1;
+    private static final byte REFERENCED = 2;
+
+    private final long[] hashes;
+    /*
+     * The depth left below each state when it was searched.
+     */
+    private final int[] depths;
+    private final byte[] slots;
+    private final int mask;
+    private int size;
+    private long hits;
+
+    /**
+     * Make an empty table.
+     * 
+     * @param capacity The most hashes to keep, rounded up to a power of two
+     */
+    public TranspositionTable(int capacity) {
+        int length = Integer.highestOneBit(Math.max(WINDOW, capacity));
+        if (length < capacity) {
+            length <<= 1;
+        }
+        this.hashes = new long[length];
+        this.depths = new int[length];
+        this.slots = new byte[length];
+        this.mask = length - 1;
+    }
+
+    /**
+     * The slot a hash starts probing from. The low bits of a Zobrist
+     * hash are already well mixed, but other hashes may not be.
+     * 
+     * @param hash The state hash
+     * @return Its home slot
+     */
+    private int home(long hash) {
+        long h = hash * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    /**
+     * Has this state been searched before, however deep? Marks it as
+     * recently used.
+     * 
+     * @param hash The state hash
+     * @return true if the hash is in the table
+     */
+    public boolean contains(long hash) {
+        return contains(hash, 0);
+    }
+
+    /**
+     * Has this state been searched before with at least this much depth
+     * left below it? Marks it as recently used if so.
+     * 
+     * @param hash The state hash
+     * @param depth How many more levels the search may go below the state
+     * @return true if the hash is in the table with at least that depth
+     */
+    public boolean contains(long hash, int depth) {
+        int start = home(hash);
+        for (int i = 0; i < WINDOW; i++) {
+            int slot = (start + i) & mask;
+            if (slots[slot] == EMPTY) {
+                return false;
+            }
+            if (hashes[slot] == hash) {
+                if (depths[slot] < depth) {
+                    return false;
+                }
+                slots[slot] = REFERENCED;
+                hits++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remember a state searched with no depth limit, evicting an older
+     * one if its window is full.
+     * 
+     * @param hash The state hash
+     */
+    public void add(long hash) {
+        add(hash, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Remember a searched state and how deep below it the search may go,
+     * evicting an older one if its window is full. A state already in the
+     * table keeps the deeper of the two.
+     * 
+     * @param hash The state hash
+     * @param depth How many more levels the search may go below the state
+     */
+    public void add(long hash, int depth) {
+        int start = home(hash);
+        for (int i = 0; i < WINDOW; i++) {
+            int slot = (start + i) & mask;
+            if (slots[slot] == EMPTY) {
+                hashes[slot] = hash;
+                depths[slot] = depth;
+                slots[slot] = PRESENT;
+                size++;
+                return;
+            }
+            if (hashes[slot] == hash) {
+                depths[slot] = Math.max(depths[slot], depth);
+                slots[slot] = REFERENCED;
+                return;
+            }
+        }
+
+        // Window full: give every referenced hash a second chance,
+        // evict the first one which has none left.
+        for (int i = 0; i < 2 * WINDOW; i++) {
+            int slot = (start + i % WINDOW) & mask;
+            if (slots[slot] == REFERENCED) {
+                slots[slot] = PRESENT;
+            } else {
+                hashes[slot] = hash;
+                depths[slot] = depth;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Forget every hash.
+     */
+    public void clear() {
+        Arrays.fill(slots, EMPTY);
+        size = 0;
+        hits = 0;
+    }
+
+    /**
+     * @return How many hashes are in the table
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return How many lookups found their hash since the table was made or cleared
+     */
+    public long getHits() {
+        return hits;
+    }
+}
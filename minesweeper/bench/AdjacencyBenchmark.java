@@ -0,0 +1,149 @@
+/**
+ * Benchmark for the neighbour queries on the Board.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import minesweeper.model.Board;
+import minesweeper.model.Cell;
+import minesweeper.model.CellType;
+import minesweeper.model.Location;
+
+/**
+ * Measures getAdjacentCells() and getMinesAroundCell() throughput on 100x100 and 1000x1000 boards.
+ * The "before" numbers come from a copy of the old List<List<Cell>> layout, where every
+ * neighbour lookup scanned the whole board to validate the location.
+ * Run with: java minesweeper.bench.AdjacencyBenchmark
+ */
+public class AdjacencyBenchmark {
+
+    //The old scans are quadratic, so they only get a handful of queries.
+    private static final int LEGACY_QUERIES = 20;
+    private static final int QUERIES = 2_000_000;
+
+    //Stops the JIT from throwing the results away.
+    private static long sink;
+
+    /**
+     * The old board layout, kept only so the benchmark has something to compare against.
+     */
+    private static class LegacyBoard {
+        private final List<List<Cell>> cells = new ArrayList<>();
+
+        LegacyBoard(Board board){
+            for(List<Cell> boardRow : board.getCells()){
+                List<Cell> cellRow = new ArrayList<>();
+                for(Cell cell : boardRow){
+                    cellRow.add(new Cell(cell.getLocation(), cell.getType()));
+                }
+                cells.add(cellRow);
+            }
+        }
+
+        boolean isRealLocation(Location location){
+            for(List<Cell> currentRow : cells){
+                for(Cell cell : currentRow){
+                    if(cell.getLocation().getRow() == location.getRow() && cell.getLocation().getCol() == location.getCol()){
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        List<Cell> getAdjacentCells(Cell cell){
+            int[][] directions = {{1, 0}, {-1, 0}, {0, -1}, {0, 1}, {1, -1}, {-1, -1}, {1, 1}, {-1, 1}};
+            List<Cell> adjacent = new ArrayList<>();
+            for(int[] d : directions){
+                Location location = new Location(cell.getLocation().getRow() + d[0], cell.getLocation().getCol() + d[1]);
+                //The old code validated once itself and once more inside getCellAtLocation().
+                if(isRealLocation(location) && isRealLocation(location)){
+                    adjacent.add(cells.get(location.getRow()).get(location.getCol()));
+                }
+            }
+            return adjacent;
+        }
+
+        int getMinesAroundCell(Cell cell){
+            int mines = 0;
+            if(isRealLocation(cell.getLocation())){
+                for(Cell e : getAdjacentCells(cell)){
+                    if(e.getType() == CellType.BOMB_CHECKED || e.getType() == CellType.BOMB_UNCHECKED){
+                        mines++;
+                    }
+                }
+            }
+            return mines;
+        }
+    }
+
+    /**
+     * Prints one line of results.
+     * @param label what was measured.
+     * @param queries how many queries ran.
+     * @param nanos how long they took.
+     */
+    private static void report(String label, int queries, long nanos){
+        double perSecond = queries / (nanos / 1e9);
+        System.out.printf("%-44s %14.0f ops/s%n", label, perSecond);
+    }
+
+    /**
+     * Benchmarks one board size, old layout first and packed board second.
+     * @param size rows and columns of the board.
+     */
+    private static void run(int size){
+        Board board = new Board(size, size);
+        board.makeBoard();
+        LegacyBoard legacy = new LegacyBoard(board);
+        List<Cell> cells = board.getTotalCells();
+
+        //Query cells from the middle of the board, which is the worst case for the old scan.
+        List<Cell> legacyCells = new ArrayList<>();
+        for(int i = 0; i < LEGACY_QUERIES; i++){
+            Location location = new Location(size / 2, (size / 2 + i) % size);
+            legacyCells.add(legacy.cells.get(location.getRow()).get(location.getCol()));
+        }
+
+        long start = System.nanoTime();
+        for(Cell cell : legacyCells){
+            sink += legacy.getAdjacentCells(cell).size();
+        }
+        report(size + "x" + size + " getAdjacentCells   before", LEGACY_QUERIES, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for(Cell cell : legacyCells){
+            sink += legacy.getMinesAroundCell(cell);
+        }
+        report(size + "x" + size + " getMinesAroundCell before", LEGACY_QUERIES, System.nanoTime() - start);
+
+        //Warm up the new path before timing it.
+        for(int i = 0; i < QUERIES; i++){
+            sink += board.getMinesAroundCell(cells.get(i % cells.size()));
+        }
+
+        start = System.nanoTime();
+        for(int i = 0; i < QUERIES; i++){
+            sink += board.getAdjacentCells(cells.get(i % cells.size())).size();
+        }
+        report(size + "x" + size + " getAdjacentCells   after", QUERIES, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for(int i = 0; i < QUERIES; i++){
+            sink += board.getMinesAroundCell(cells.get(i % cells.size()));
+        }
+        report(size + "x" + size + " getMinesAroundCell after", QUERIES, System.nanoTime() - start);
+    }
+
+    public static void main(String[] args) {
+        run(100);
+        run(1000);
+        System.out.println("(checksum " + sink + ")");
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * Headless runner which plays many seeded games with one strategy.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.bench;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import minesweeper.model.Board;
+import minesweeper.model.DeductionEngine;
+import minesweeper.model.GameState;
+import minesweeper.model.LinearDeductionEngine;
+import minesweeper.model.Location;
+import minesweeper.model.Minesweeper;
+import minesweeper.model.MinesweeperException;
+import minesweeper.model.PlayerView;
+import minesweeper.model.ProbabilityEngine;
+import minesweeper.model.SelectionOutcome;
+
+/**
+ * Plays a batch of seeded games with one strategy on a thread pool, with no console game or
+ * window. Game i is played on the board made from seed + i, so the same arguments always play
+ * the same games. Each finished game is written to the CSV as it comes in, and at the end the
+ * runner prints games and moves per second, the win rate and the time per game at a few
+ * percentiles, which gives one number for speed and one for quality per build.
+ *
+ * Strategies only read the PlayerView and which cells are covered, and the game's own state says when they have won or
+ * lost. The first selection is always safe, as in most versions of the game; a mine there is
+ * moved to the first safe cell on the board.
+ *
+ * Run with: java minesweeper.bench.BatchRunner [games] [rows] [cols] [density] [strategy] [threads] [csv] [seed]
+ * where strategy is one of random, deduction, linear or probability.
+ */
+public class BatchRunner {
+
+    //Search steps ProbabilityEngine may take per component before it gives a rough answer.
+    private static final long NODE_LIMIT = 1_000_000;
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    /**
+     * How a player picks its next move. Each one falls back on the one before it when it has
+     * nothing certain to play.
+     */
+    private enum Strategy {
+        RANDOM,      // Any covered cell.
+        DEDUCTION,   // Cells DeductionEngine proves safe, otherwise a random guess.
+        LINEAR,      // DeductionEngine, then LinearDeductionEngine, otherwise a random guess.
+        PROBABILITY; // As LINEAR, but guesses the cell ProbabilityEngine says is safest.
+    }
+
+    /**
+     * What happened in one game.
+     */
+    private static class GameResult {
+        final long seed;
+        final boolean won;
+        final int moves;
+        final int guesses;
+        final int uncovered;
+        final long nanos;
+
+        GameResult(long seed, boolean won, int moves, int guesses, int uncovered, long nanos){
+            this.seed = seed;
+            this.won = won;
+            this.moves = moves;
+            this.guesses = guesses;
+            this.uncovered = uncovered;
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * Plays one game to the end.
+     * @param seed seed for the board and the player's guesses.
+     * @return how the game went.
+     */
+    private static GameResult play(long seed, int rows, int cols, double density, Strategy strategy) throws MinesweeperException{
+        long start = System.nanoTime();
+        Board board = new Board(rows, cols, density, new SplittableRandom(seed));
+        Minesweeper game = new Minesweeper(rows, cols, board);
+        board.makeBoard();
+        //A different stream from the board's, so guesses don't follow the mine layout.
+        SplittableRandom random = new SplittableRandom(seed).split();
+
+        DeductionEngine deduction = new DeductionEngine(game);
+        LinearDeductionEngine linear = new LinearDeductionEngine(game);
+        ProbabilityEngine probability = new ProbabilityEngine(game);
+        probability.setNodeLimit(NODE_LIMIT);
+
+        int total = rows * cols;
+        int moves = 0;
+        int guesses = 0;
+        while(game.getGameState() != GameState.WON && game.getGameState() != GameState.LOST){
+            PlayerView view = game.getPlayerView();
+
+            List<Location> safe = List.of();
+            if(strategy != Strategy.RANDOM && view.getCoveredCount() < total){
+                safe = deduction.getSafeCells();
+                if(safe.isEmpty() && strategy != Strategy.DEDUCTION){
+                    safe = linear.getSafeCells();
+                }
+            }
+            if(!safe.isEmpty()){
+                for(Location location : safe){
+                    //An earlier cell in the list may have opened this one already, or won the game.
+                    SelectionOutcome outcome = SelectionOutcome.of(game.select(location.getRow(), location.getCol()));
+                    if(outcome == SelectionOutcome.REVEALED || outcome == SelectionOutcome.WON){
+                        moves++;
+                    }
+                }
+                continue;
+            }
+
+            Location guess;
+            if(view.getCoveredCount() == total){
+                guess = randomCovered(board, random);
+                int index = board.indexOf(guess.getRow(), guess.getCol());
+                if(board.isMine(index)){
+                    for(int i = 0; i < total; i++){
+                        if(!board.isMine(i)){
+                            board.moveMine(guess, board.locationOf(i));
+                            break;
+                        }
+                    }
+                }
+            } else if(strategy == Strategy.PROBABILITY){
+                guess = probability.getSafestCell();
+            } else {
+                guess = randomCovered(board, random);
+            }
+            guesses++;
+            moves++;
+            game.select(guess.getRow(), guess.getCol());
+        }
+        boolean won = game.getGameState() == GameState.WON;
+        int uncovered = total - game.getPlayerView().getCoveredCount();
+        return new GameResult(seed, won, moves, guesses, uncovered, System.nanoTime() - start);
+    }
+
+    /**
+     * Picks a covered cell uniformly at random from the board's covered set, in constant time.
+     * Which cells are covered is on the player's screen, and mines are as likely as any other
+     * cell, so this tells the player nothing they couldn't see. The game ends before the mines
+     * are all that is left, so this never runs dry.
+     */
+    private static Location randomCovered(Board board, SplittableRandom random){
+        return board.locationOf(board.randomCoveredCell(random));
+    }
+
+    /**
+     * @param sorted values in ascending order.
+     * @param percentile between 0 and 100.
+     * @return the value at the percentile, by the nearest-rank method.
+     */
+    private static long percentile(long[] sorted, double percentile){
+        int rank = (int)Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int cols = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        double density = args.length > 3 ? Double.parseDouble(args[3]) : 0.20625;
+        Strategy strategy = args.length > 4 ? Strategy.valueOf(args[4].toUpperCase(Locale.ROOT)) : Strategy.PROBABILITY;
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        String csv = args.length > 6 ? args[6] : "batch.csv";
+        long baseSeed = args.length > 7 ? Long.parseLong(args[7]) : 0;
+
+        System.out.printf("%d games of %dx%d at density %.4f, strategy %s, %d threads%n",
+            games, rows, cols, density, strategy.name().toLowerCase(Locale.ROOT), threads);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CompletionService<GameResult> results = new ExecutorCompletionService<>(pool);
+        long[] nanos = new long[games];
+        long moves = 0;
+        int wins = 0;
+        long start = System.nanoTime();
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(csv)))) {
+            for(int i = 0; i < games; i++){
+                long seed = baseSeed + i;
+                results.submit(() -> play(seed, rows, cols, density, strategy));
+            }
+            out.println("seed,won,moves,guesses,uncovered,micros");
+            for(int i = 0; i < games; i++){
+                GameResult result = results.take().get();
+                out.println(result.seed + "," + result.won + "," + result.moves + "," + result.guesses
+                    + "," + result.uncovered + "," + result.nanos / 1000);
+                nanos[i] = result.nanos;
+                moves += result.moves;
+                if(result.won){
+                    wins++;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(nanos);
+        double winRate = (double)wins / games;
+        //Normal approximation to the binomial, fine for the batch sizes this is run with.
+        double margin = 1.96 * Math.sqrt(winRate * (1 - winRate) / games);
+        System.out.printf("%.2f s, %.1f games/s, %.1f moves/s%n", seconds, games / seconds, moves / seconds);
+        System.out.printf("won %d of %d (%.2f%% +/- %.2f%%)%n", wins, games, 100 * winRate, 100 * margin);
+        for(double p : PERCENTILES){
+            System.out.printf("p%.0f %.3f ms   ", p, percentile(nanos, p) / 1e6);
+        }
+        System.out.printf("max %.3f ms%n", nanos[games - 1] / 1e6);
+        System.out.println("Per-game results written to " + csv);
+    }
+}
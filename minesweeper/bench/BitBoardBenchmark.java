@@ -0,0 +1,77 @@
+/**
+ * Benchmark for recomputing the layers of a BitBoard.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.bench;
+
+import java.util.SplittableRandom;
+
+import minesweeper.model.BitBoard;
+import minesweeper.model.Board;
+
+/**
+ * Measures BitBoard on 100x100 and 1000x1000 boards with a fifth of the cells uncovered: making
+ * one, which counts the numbers 64 cells at a time, next to the same numbers worked out one cell
+ * at a time with Board.getAdjacentMines(), then recompute(), which works out the frontier and
+ * the unsatisfied numbers again after cells are uncovered or flagged.
+ * Run with: java minesweeper.bench.BitBoardBenchmark
+ */
+public class BitBoardBenchmark {
+
+    private static final int ROUNDS = 2000;
+
+    //Stops the JIT from throwing the results away.
+    private static long sink;
+
+    /**
+     * Benchmarks one board size.
+     * @param size rows and columns of the board.
+     */
+    private static void run(int size){
+        Board board = new Board(size, size, 0.2, new SplittableRandom(size));
+        board.makeBoard();
+        BitBoard bits = new BitBoard(board);
+        SplittableRandom random = new SplittableRandom(1);
+        int total = size * size;
+        for(int i = 0; i < total / 5; i++){
+            bits.setRevealed(random.nextInt(total), true);
+        }
+
+        //Warm up both paths before timing them.
+        for(int r = 0; r < ROUNDS; r++){
+            bits.recompute();
+            sink += bits.getFrontierCount();
+        }
+        for(int i = 0; i < total; i++){
+            sink += board.getAdjacentMines(i);
+        }
+
+        long start = System.nanoTime();
+        for(int i = 0; i < total; i++){
+            sink += board.getAdjacentMines(i);
+        }
+        System.out.printf("%-40s %10.3f ms%n", size + "x" + size + " getAdjacentMines, every cell", (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        for(int r = 0; r < ROUNDS / 10; r++){
+            sink += new BitBoard(board).getCount(r);
+        }
+        System.out.printf("%-40s %10.3f ms%n", size + "x" + size + " new BitBoard", (System.nanoTime() - start) / 1e6 / (ROUNDS / 10));
+
+        start = System.nanoTime();
+        for(int r = 0; r < ROUNDS; r++){
+            bits.recompute();
+            sink += bits.getUnsatisfiedCount();
+        }
+        System.out.printf("%-40s %10.3f ms%n", size + "x" + size + " BitBoard.recompute", (System.nanoTime() - start) / 1e6 / ROUNDS);
+    }
+
+    public static void main(String[] args) {
+        run(100);
+        run(1000);
+        System.out.println("(checksum " + sink + ")");
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Benchmark for the linear deduction engine against a brute force search.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.bench;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import backtracker.Backtracker;
+import minesweeper.model.Board;
+import minesweeper.model.DeductionEngine;
+import minesweeper.model.FrontierConfiguration;
+import minesweeper.model.IntList;
+import minesweeper.model.LinearDeductionEngine;
+import minesweeper.model.Location;
+import minesweeper.model.Minesweeper;
+import minesweeper.model.MinesweeperException;
+import minesweeper.model.PlayerView;
+
+/**
+ * Builds seeded mid-game positions by opening an empty cell on an expert board and playing
+ * every move DeductionEngine can prove, so each position is one where the simple rules are stuck.
+ * Each position is then solved twice: by LinearDeductionEngine, and by brute force with the
+ * Backtracker, which asks for every frontier cell whether any mine layout fits the numbers with
+ * that cell a mine, and whether any fits with it safe. Prints the time taken and, of the forced
+ * cells DeductionEngine hadn't already settled (it stops with mines proved but no safe cell), how
+ * many safe cells and how many mines the linear engine found.
+ * Run with: java minesweeper.bench.LinearSolverBenchmark [positions]
+ */
+public class LinearSolverBenchmark {
+
+    private static final int ROWS = 16;
+    private static final int COLS = 30;
+    private static final int MINES = 99;
+
+    //What the brute force search says about each cell.
+    private static final byte FREE = 0;
+    private static final byte SAFE = 1;
+    private static final byte MINE = 2;
+
+    /**
+     * Finds the forced frontier cells by brute force.
+     * @return SAFE, MINE or FREE for every cell of the board, by board index.
+     */
+    private static byte[] bruteForce(PlayerView view, Backtracker backtracker){
+        FrontierConfiguration root = new FrontierConfiguration(view);
+        IntList frontier = root.getFrontier();
+        byte[] forced = new byte[view.getTotalCells()];
+        for(int c = 0; c < frontier.size(); c++){
+            int cell = frontier.get(c);
+            boolean[] possible = new boolean[2];
+            for(int v = 0; v <= 1; v++){
+                possible[v] = backtracker.solve(root.with(cell, v == 1)) != null;
+            }
+            if(!possible[1]){
+                forced[cell] = SAFE;
+            } else if(!possible[0]){
+                forced[cell] = MINE;
+            }
+        }
+        return forced;
+    }
+
+    public static void main(String[] args) throws MinesweeperException {
+        int positions = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        Backtracker backtracker = new Backtracker(false);
+
+        long linearNanos = 0;
+        long bruteNanos = 0;
+        long linearSafe = 0;
+        long linearMines = 0;
+        long bruteSafe = 0;
+        long bruteMines = 0;
+        for(int seed = 0; seed < positions; seed++){
+            Board board = new Board(ROWS, COLS, MINES, new SplittableRandom(seed));
+            Minesweeper game = new Minesweeper(ROWS, COLS, board);
+            board.makeBoard();
+            for(int i = 0; i < ROWS * COLS; i++){
+                if(!board.isMine(i) && board.getAdjacentMines(i) == 0){
+                    game.makeSelection(board.locationOf(i));
+                    break;
+                }
+            }
+            DeductionEngine engine = new DeductionEngine(game);
+            List<Location> safe = engine.getSafeCells();
+            while(!safe.isEmpty()){
+                for(Location location : safe){
+                    game.makeSelection(location);
+                }
+                safe = engine.getSafeCells();
+            }
+
+            long start = System.nanoTime();
+            LinearDeductionEngine linear = new LinearDeductionEngine(game);
+            linear.getSafeCells();
+            linearNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            byte[] forced = bruteForce(game.getPlayerView(), backtracker);
+            bruteNanos += System.nanoTime() - start;
+
+            //Only count the cells the pair rules hadn't settled already.
+            for(int i = 0; i < forced.length; i++){
+                Location location = board.locationOf(i);
+                if(forced[i] == FREE || engine.isMine(location) || engine.isSafe(location)){
+                    continue;
+                }
+                if(forced[i] == SAFE){
+                    bruteSafe++;
+                    if(linear.isSafe(location)){
+                        linearSafe++;
+                    }
+                } else {
+                    bruteMines++;
+                    if(linear.isMine(location)){
+                        linearMines++;
+                    }
+                }
+            }
+        }
+
+        System.out.printf("%d positions%n", positions);
+        System.out.printf("forced cells the pair rules hadn't found: %d safe, %d mines%n", bruteSafe, bruteMines);
+        System.out.printf("linear:      %10.3f ms/position  %6d safe  %6d mines%n", linearNanos / 1e6 / positions, linearSafe, linearMines);
+        System.out.printf("brute force: %10.3f ms/position%n", bruteNanos / 1e6 / positions);
+        System.out.printf("linear found %.1f%% of the forced safe cells and %.1f%% of the forced mines%n",
+            100.0 * linearSafe / Math.max(1, bruteSafe), 100.0 * linearMines / Math.max(1, bruteMines));
+    }
+}
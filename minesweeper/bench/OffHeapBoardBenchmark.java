@@ -0,0 +1,75 @@
+/**
+ * Benchmark for making and playing on a giant OffHeapBoard.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.bench;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+import minesweeper.model.OffHeapBoard;
+
+/**
+ * Makes one OffHeapBoard, opens a few openings on it and prints how long that took next to the
+ * heap in use and the collections it caused. The heap numbers should stay flat however big
+ * the board is.
+ * Run with: java -XX:MaxDirectMemorySize=3g minesweeper.bench.OffHeapBoardBenchmark [rows] [cols] [density]
+ * The defaults are 50,000 x 50,000 at the expert density, which needs 2.5 GB of direct memory.
+ */
+public class OffHeapBoardBenchmark {
+
+    private static final int OPENINGS = 1000;
+
+    private static long gcCount(){
+        long count = 0;
+        for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()){
+            count += gc.getCollectionCount();
+        }
+        return count;
+    }
+
+    private static long gcMillis(){
+        long millis = 0;
+        for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()){
+            millis += gc.getCollectionTime();
+        }
+        return millis;
+    }
+
+    private static long heapUsed(){
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int cols = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        double density = args.length > 2 ? Double.parseDouble(args[2]) : 0.20625;
+
+        long gcBefore = gcCount();
+        long gcTimeBefore = gcMillis();
+        long start = System.nanoTime();
+        try (OffHeapBoard board = new OffHeapBoard(rows, cols, density, new SplittableRandom(0))) {
+            board.makeBoard();
+            System.out.printf("made %dx%d (%,d cells, %,d mines) in %.2f s%n", rows, cols,
+                board.getTotalCells(), board.getMineCount(), (System.nanoTime() - start) / 1e9);
+
+            SplittableRandom random = new SplittableRandom(1);
+            start = System.nanoTime();
+            long uncovered = 0;
+            for(int i = 0; i < OPENINGS; i++){
+                long index = random.nextLong(board.getTotalCells());
+                if(!board.isMine(index)){
+                    uncovered += board.revealFrom(index);
+                }
+            }
+            System.out.printf("%d selections uncovered %,d cells in %.2f ms%n", OPENINGS, uncovered,
+                (System.nanoTime() - start) / 1e6);
+            System.out.printf("heap in use %.1f MB, %d collections taking %d ms%n", heapUsed() / 1e6,
+                gcCount() - gcBefore, gcMillis() - gcTimeBefore);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * Scaling benchmark for the parallel backtracker.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import backtracker.ParallelBacktracker;
+import minesweeper.model.Board;
+import minesweeper.model.DeductionEngine;
+import minesweeper.model.FrontierConfiguration;
+import minesweeper.model.Location;
+import minesweeper.model.Minesweeper;
+import minesweeper.model.MinesweeperException;
+
+/**
+ * Builds seeded expert positions where DeductionEngine is stuck, the same way as
+ * LinearSolverBenchmark, then on 1, 2, 4, 8 and 16 threads asks of every position which
+ * numbers of mines its frontier can hold, one search per count. A count the numbers don't
+ * allow is only ruled out once every layout has been tried, so most of these searches are
+ * whole trees. Prints the time per position and the speedup over one thread.
+ *
+ * The search is over FrontierConfiguration rather than MinesweeperSolver: the solver plays
+ * a proven safe cell whenever it has one and only branches on tied guesses, so its tree is
+ * mostly a single line with nothing to hand out to other threads.
+ * Run with: java minesweeper.bench.ParallelSolveBenchmark [positions]
+ */
+public class ParallelSolveBenchmark {
+
+    private static final int ROWS = 16;
+    private static final int COLS = 30;
+    private static final int MINES = 99;
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16};
+    private static final int SPLIT_DEPTH = 6;
+
+    /**
+     * Plays a seeded expert board until the pair rules are stuck.
+     * @param seed seed for the mine layout.
+     * @return the root of the position's frontier.
+     */
+    private static FrontierConfiguration position(int seed) throws MinesweeperException {
+        Board board = new Board(ROWS, COLS, MINES, new SplittableRandom(seed));
+        Minesweeper game = new Minesweeper(ROWS, COLS, board);
+        board.makeBoard();
+        for(int i = 0; i < ROWS * COLS; i++){
+            if(!board.isMine(i) && board.getAdjacentMines(i) == 0){
+                game.makeSelection(board.locationOf(i));
+                break;
+            }
+        }
+        DeductionEngine engine = new DeductionEngine(game);
+        List<Location> safe = engine.getSafeCells();
+        while(!safe.isEmpty()){
+            for(Location location : safe){
+                game.makeSelection(location);
+            }
+            safe = engine.getSafeCells();
+        }
+        return new FrontierConfiguration(game.getPlayerView());
+    }
+
+    /**
+     * Searches every count for every position once with the given number of threads.
+     * @param threads worker threads for the pool.
+     * @param positions the positions to search.
+     * @return total nanoseconds spent searching.
+     */
+    private static long run(int threads, List<FrontierConfiguration> positions){
+        ParallelBacktracker backtracker = new ParallelBacktracker(threads, SPLIT_DEPTH);
+        long total = 0;
+        try {
+            for(FrontierConfiguration root : positions){
+                int cells = root.getFrontier().size();
+                long start = System.nanoTime();
+                for(int mines = 0; mines <= cells; mines++){
+                    backtracker.solve(root.withMines(mines));
+                }
+                total += System.nanoTime() - start;
+            }
+        } finally {
+            backtracker.shutdown();
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws MinesweeperException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        List<FrontierConfiguration> positions = new ArrayList<>();
+        for(int seed = 0; seed < count; seed++){
+            positions.add(position(seed));
+        }
+
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        //One untimed round so the JIT has compiled the search.
+        run(1, positions);
+
+        long baseline = 0;
+        for(int threads : THREADS){
+            long nanos = run(threads, positions);
+            if(threads == 1){
+                baseline = nanos;
+            }
+            System.out.printf("%2d threads: %10.2f ms/position   speedup %5.2fx%n",
+                threads, nanos / 1e6 / count, (double)baseline / nanos);
+        }
+    }
+}
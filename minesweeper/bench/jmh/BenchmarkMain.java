@@ -0,0 +1,36 @@
+/**
+ * Runs the JMH benchmarks with allocation profiling.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.bench.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every benchmark in this package, or the ones matching the given pattern, with the GC
+ * profiler attached. Next to the time per operation it then reports gc.alloc.rate.norm, the
+ * bytes allocated per operation, which is the number to watch for allocation regressions.
+ *
+ * JMH is not bundled with the project. Compile this package with jmh-core and
+ * jmh-generator-annprocess (1.37) on the classpath, the second one as an annotation processor,
+ * and run with: java minesweeper.bench.jmh.BenchmarkMain [regex]
+ * for example BoardBenchmark.makeBoard, or MinesweeperBenchmark to run one class.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkMain.class.getPackage().getName() + ".*";
+        Options options = new OptionsBuilder()
+            .include(include)
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * JMH benchmarks for Board.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.bench.jmh;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import minesweeper.model.Board;
+import minesweeper.model.Cell;
+import minesweeper.model.Location;
+import minesweeper.model.MinesweeperException;
+
+/**
+ * Board hot paths: laying the mines, looking up the cells around a cell, and checking that
+ * a location is on the board. The lookups walk a fixed set of seeded locations so every
+ * invocation does the same work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({"16", "64", "256"})
+    public int size;
+
+    @Param({"0.12", "0.2"})
+    public double density;
+
+    private Board board;
+    private Cell[] cells;
+    private Location[] locations;
+
+    @Setup
+    public void setup() throws MinesweeperException{
+        board = new Board(size, size, density, new SplittableRandom(42));
+        board.makeBoard();
+
+        SplittableRandom random = new SplittableRandom(7);
+        cells = new Cell[LOOKUPS];
+        locations = new Location[LOOKUPS];
+        for(int i = 0; i < LOOKUPS; i++){
+            cells[i] = board.getCellAtLocation(new Location(random.nextInt(size), random.nextInt(size)));
+            //About one in nine just off the edge, so both answers get taken.
+            locations[i] = new Location(random.nextInt(size + 2) - 1, random.nextInt(size + 2) - 1);
+        }
+    }
+
+    @Benchmark
+    public Board makeBoard(){
+        Board fresh = new Board(size, size, density, new SplittableRandom(42));
+        fresh.makeBoard();
+        return fresh;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void getAdjacentCells(Blackhole blackhole){
+        for(Cell cell : cells){
+            List<Cell> adjacent = board.getAdjacentCells(cell);
+            blackhole.consume(adjacent);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void isRealLocation(Blackhole blackhole){
+        for(Location location : locations){
+            blackhole.consume(board.isRealLocation(location));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * JMH benchmarks for Minesweeper.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.bench.jmh;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import minesweeper.model.Board;
+import minesweeper.model.Location;
+import minesweeper.model.Minesweeper;
+import minesweeper.model.MinesweeperException;
+
+/**
+ * Minesweeper hot paths, on a seeded game with its largest opening already uncovered so
+ * toString() and the selection scans see a board in the middle of play. The selection
+ * benchmarks undo what they uncover, which keeps the game the same from one invocation
+ * to the next; undoSelection() allocates nothing, so what is measured is the selection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinesweeperBenchmark {
+
+    @Param({"16", "64", "256"})
+    public int size;
+
+    @Param({"0.12", "0.2"})
+    public double density;
+
+    private Minesweeper game;
+    //A covered cell showing a number, and a covered cell with no mines around it.
+    private Location number;
+    private Location opening;
+
+    @Setup
+    public void setup() throws MinesweeperException{
+        Board board = new Board(size, size, density, new SplittableRandom(42));
+        game = new Minesweeper(size, size, board);
+        board.makeBoard();
+
+        //Open the first empty cell, then pick the targets from what is still covered.
+        int total = size * size;
+        for(int i = 0; i < total; i++){
+            if(!board.isMine(i) && board.getAdjacentMines(i) == 0){
+                game.makeSelection(board.locationOf(i));
+                break;
+            }
+        }
+        for(int i = 0; i < total; i++){
+            if(board.isRevealed(i) || board.isMine(i)){
+                continue;
+            }
+            if(board.getAdjacentMines(i) == 0 && opening == null){
+                opening = board.locationOf(i);
+            } else if(board.getAdjacentMines(i) > 0 && number == null){
+                number = board.locationOf(i);
+            }
+        }
+        if(opening == null){
+            opening = number;
+        }
+    }
+
+    @Benchmark
+    public List<Location> makeSelectionNumber() throws MinesweeperException{
+        List<Location> uncovered = game.makeSelection(number);
+        game.undoSelection();
+        return uncovered;
+    }
+
+    @Benchmark
+    public List<Location> makeSelectionOpening() throws MinesweeperException{
+        List<Location> uncovered = game.makeSelection(opening);
+        game.undoSelection();
+        return uncovered;
+    }
+
+    @Benchmark
+    public Collection<Location> getPossibleSelections(){
+        return game.getPossibleSelections();
+    }
+
+    @Benchmark
+    public String toStringBoard(){
+        return game.toString();
+    }
+
+    @Benchmark
+    public Minesweeper copy(){
+        return new Minesweeper(game);
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * JMH benchmark for solving a board with the Backtracker.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.bench.jmh;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import backtracker.Backtracker;
+import backtracker.Configuration;
+import minesweeper.model.Board;
+import minesweeper.model.Minesweeper;
+import minesweeper.model.MinesweeperSolver;
+
+/**
+ * Backtracker.solve() with MinesweeperSolver from a fresh board to the end. A solve plays
+ * the game it is given, so each invocation gets a new game; the board itself is laid once
+ * per trial and copied, which is cheap next to a solve.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"9", "16", "24"})
+    public int size;
+
+    @Param({"0.12", "0.2"})
+    public double density;
+
+    private Minesweeper start;
+    private Minesweeper game;
+
+    @Setup(Level.Trial)
+    public void makeBoard(){
+        Board board = new Board(size, size, density, new SplittableRandom(42));
+        start = new Minesweeper(size, size, board);
+        board.makeBoard();
+    }
+
+    @Setup(Level.Invocation)
+    public void copyGame(){
+        game = new Minesweeper(start);
+    }
+
+    @Benchmark
+    public Configuration solve(){
+        return new Backtracker(false).solve(new MinesweeperSolver(game));
+    }
+}
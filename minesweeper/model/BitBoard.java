@@ -0,0 +1,345 @@
+/**
+ * Class to represent a BitBoard, a board stored as one bit per cell per layer.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+/**
+ * Class to represent a BitBoard: the mines, uncovered cells and flags of a board as bit
+ * layers, each row stored as its own run of longs with bit c % 64 of word c / 64 for column c.
+ * Layers worked out from those are recomputed 64 cells at a time:
+ *
+ *  - the number on every cell, kept bit-sliced as four layers (bit k of the number in layer k)
+ *    and built by adding the eight neighbour layers with a tree of carry-save adders, where a
+ *    neighbour layer is just a row shifted one bit left or right;
+ *  - the frontier: covered cells next to an uncovered one;
+ *  - the unsatisfied numbers: uncovered cells with fewer or more flags around them than
+ *    their number says.
+ *
+ * A whole 1000x1000 board is about 16,000 words a layer, so recompute() takes well under a
+ * millisecond. Made from a Board the numbers come from the mines; made from a PlayerView
+ * the mines are unknown and the numbers are read off the uncovered cells, so solvers can use
+ * one without cheating. Cells are addressed by board index, see Board.indexOf().
+ */
+public class BitBoard {
+
+    private static final int COUNT_BITS = 4;
+
+    private final int rows;
+    private final int cols;
+    //Longs per row, and the bits of the last one which are real cells.
+    private final int words;
+    private final long lastMask;
+
+    private final long[] mines;
+    private final long[] revealed;
+    private final long[] flagged;
+
+    //Derived layers, see recompute().
+    private final long[][] count = new long[COUNT_BITS][];
+    private final long[] frontier;
+    private final long[] unsatisfied;
+
+    //One row of flag counts and spread uncovered cells, reused by recompute().
+    private final long[][] flagCount = new long[COUNT_BITS][];
+    private final long[] around;
+
+    /**
+     * Constructor which copies a whole board, mines included. For analytics, not for players.
+     * @param board a board which has been made.
+     */
+    public BitBoard(Board board){
+        this(board.getRows(), board.getCols());
+        int total = rows * cols;
+        for(int i = 0; i < total; i++){
+            if(board.isMine(i)){
+                set(mines, i, true);
+            }
+            if(board.isRevealed(i)){
+                set(revealed, i, true);
+            }
+            if(board.isFlagged(i)){
+                set(flagged, i, true);
+            }
+        }
+        //The mines never change, so neither do the numbers.
+        for(int r = 0; r < rows; r++){
+            neighbourCounts(mines, r, count, r * words);
+        }
+        recompute();
+    }
+
+    /**
+     * Constructor which copies what a player can see. The numbers are read off the
+     * uncovered cells; covered cells have no number and no cell is known to be a mine.
+     * @param view what the player can see.
+     */
+    public BitBoard(PlayerView view){
+        this(view.getRows(), view.getCols());
+        int total = rows * cols;
+        for(int i = 0; i < total; i++){
+            if(!view.isCovered(i)){
+                set(revealed, i, true);
+                int number = view.getNumber(i);
+                for(int k = 0; k < COUNT_BITS; k++){
+                    set(count[k], i, (number >>> k & 1) != 0);
+                }
+            }
+            if(view.isFlagged(i)){
+                set(flagged, i, true);
+            }
+        }
+        recompute();
+    }
+
+    private BitBoard(int rows, int cols){
+        this.rows = rows;
+        this.cols = cols;
+        this.words = (cols + 63) >>> 6;
+        this.lastMask = cols % 64 == 0 ? -1L : (1L << (cols % 64)) - 1;
+        int size = rows * words;
+        this.mines = new long[size];
+        this.revealed = new long[size];
+        this.flagged = new long[size];
+        for(int k = 0; k < COUNT_BITS; k++){
+            count[k] = new long[size];
+            flagCount[k] = new long[words];
+        }
+        this.around = new long[words];
+        this.frontier = new long[size];
+        this.unsatisfied = new long[size];
+    }
+
+    //------------- Single cells --------------//
+
+    private int word(int index){
+        return (index / cols) * words + ((index % cols) >>> 6);
+    }
+
+    private boolean get(long[] layer, int index){
+        return (layer[word(index)] & 1L << (index % cols)) != 0;
+    }
+
+    private void set(long[] layer, int index, boolean value){
+        long bit = 1L << (index % cols);
+        if(value){
+            layer[word(index)] |= bit;
+        } else {
+            layer[word(index)] &= ~bit;
+        }
+    }
+
+    public int getRows(){
+        return rows;
+    }
+
+    public int getCols(){
+        return cols;
+    }
+
+    public boolean isMine(int index){
+        return get(mines, index);
+    }
+
+    public boolean isRevealed(int index){
+        return get(revealed, index);
+    }
+
+    public boolean isFlagged(int index){
+        return get(flagged, index);
+    }
+
+    /**
+     * Changes one cell's uncovered bit. Call recompute() once done changing cells.
+     * @param index index of the cell.
+     * @param value whether it is uncovered.
+     */
+    public void setRevealed(int index, boolean value){
+        set(revealed, index, value);
+    }
+
+    /**
+     * Changes one cell's flag. Call recompute() once done changing cells.
+     * @param index index of the cell.
+     * @param value whether it is flagged.
+     */
+    public void setFlagged(int index, boolean value){
+        set(flagged, index, value);
+    }
+
+    /**
+     * @param index index of the cell.
+     * @return the number of mines around the cell, as of the last recompute().
+     */
+    public int getCount(int index){
+        int number = 0;
+        for(int k = 0; k < COUNT_BITS; k++){
+            if(get(count[k], index)){
+                number |= 1 << k;
+            }
+        }
+        return number;
+    }
+
+    /**
+     * @param index index of the cell.
+     * @return whether the cell is covered and next to an uncovered cell.
+     */
+    public boolean isFrontier(int index){
+        return get(frontier, index);
+    }
+
+    /**
+     * @param index index of the cell.
+     * @return whether the cell is uncovered and its flags don't match its number.
+     */
+    public boolean isUnsatisfied(int index){
+        return get(unsatisfied, index);
+    }
+
+    public int getFrontierCount(){
+        return bitCount(frontier);
+    }
+
+    public int getUnsatisfiedCount(){
+        return bitCount(unsatisfied);
+    }
+
+    /**
+     * @return the indices of the frontier cells, in board order.
+     */
+    public IntList getFrontier(){
+        return indices(frontier);
+    }
+
+    /**
+     * @return the indices of the unsatisfied numbers, in board order.
+     */
+    public IntList getUnsatisfied(){
+        return indices(unsatisfied);
+    }
+
+    private static int bitCount(long[] layer){
+        int total = 0;
+        for(long word : layer){
+            total += Long.bitCount(word);
+        }
+        return total;
+    }
+
+    private IntList indices(long[] layer){
+        IntList list = new IntList(bitCount(layer));
+        for(int r = 0; r < rows; r++){
+            for(int w = 0; w < words; w++){
+                long word = layer[r * words + w];
+                while(word != 0){
+                    list.add(r * cols + (w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+        return list;
+    }
+
+    //------------- Derived layers --------------//
+
+    /**
+     * Works out the frontier and unsatisfied layers again from the uncovered cells and flags.
+     * The numbers only depend on the mines, which are fixed, so they are left as they are.
+     */
+    public void recompute(){
+        //A row at a time, so the row being worked on stays in cache.
+        for(int r = 0; r < rows; r++){
+            int row = r * words;
+            neighbourCounts(flagged, r, flagCount, 0);
+            //Frontier: covered cells with an uncovered cell in the 3x3 block around them.
+            dilate(revealed, r, around);
+            for(int w = 0; w < words; w++){
+                long differs = count[0][row + w] ^ flagCount[0][w]
+                    | count[1][row + w] ^ flagCount[1][w]
+                    | count[2][row + w] ^ flagCount[2][w]
+                    | count[3][row + w] ^ flagCount[3][w];
+                long mask = w == words - 1 ? lastMask : -1L;
+                frontier[row + w] = around[w] & ~revealed[row + w] & mask;
+                unsatisfied[row + w] = revealed[row + w] & differs & mask;
+            }
+        }
+    }
+
+    /**
+     * Counts, for every cell of row r, how many of its eight neighbours are set in a layer.
+     * The eight shifted words go through a tree of carry-save adders, each of which adds
+     * three words into a sum word and a carry word, so 64 cells are counted at once.
+     * @param layer the layer to count.
+     * @param r the row to work out.
+     * @param out four layers to write the bit-sliced counts to.
+     * @param at where in the layers the row goes.
+     */
+    private void neighbourCounts(long[] layer, int r, long[][] out, int at){
+        long[] out0 = out[0];
+        long[] out1 = out[1];
+        long[] out2 = out[2];
+        long[] out3 = out[3];
+        int row = r * words;
+        int above = r > 0 ? row - words : -1;
+        int below = r < rows - 1 ? row + words : -1;
+        for(int w = 0; w < words; w++){
+            boolean first = w == 0;
+            boolean last = w == words - 1;
+            //Column c - 1 lines up with c when shifted up a bit, c + 1 when shifted down.
+            long n = above < 0 ? 0 : layer[above + w];
+            long nw = above < 0 ? 0 : n << 1 | (first ? 0 : layer[above + w - 1] >>> 63);
+            long ne = above < 0 ? 0 : n >>> 1 | (last ? 0 : layer[above + w + 1] << 63);
+            long s = below < 0 ? 0 : layer[below + w];
+            long sw = below < 0 ? 0 : s << 1 | (first ? 0 : layer[below + w - 1] >>> 63);
+            long se = below < 0 ? 0 : s >>> 1 | (last ? 0 : layer[below + w + 1] << 63);
+            long centre = layer[row + w];
+            long west = centre << 1 | (first ? 0 : layer[row + w - 1] >>> 63);
+            long east = centre >>> 1 | (last ? 0 : layer[row + w + 1] << 63);
+
+            //Ones: three adders of three, two and three words, then one over their sums.
+            long x = n ^ nw;
+            long sum1 = x ^ ne;
+            long carry1 = n & nw | ne & x;
+            long sum2 = s ^ sw;
+            long carry2 = s & sw;
+            x = se ^ west;
+            long sum3 = x ^ east;
+            long carry3 = se & west | east & x;
+            x = sum1 ^ sum2;
+            long ones = x ^ sum3;
+            long carry4 = sum1 & sum2 | sum3 & x;
+            //Twos: the four carries.
+            x = carry1 ^ carry2;
+            long twos = x ^ carry3;
+            long fours1 = carry1 & carry2 | carry3 & x;
+            long fours2 = twos & carry4;
+            out0[at + w] = ones;
+            out1[at + w] = twos ^ carry4;
+            out2[at + w] = fours1 ^ fours2;
+            out3[at + w] = fours1 & fours2;
+        }
+    }
+
+    /**
+     * ORs together row r of a layer and the rows above and below it, each spread one column
+     * either way, so a bit is set wherever a cell in the 3x3 block around it is set.
+     * @param layer the layer to spread.
+     * @param r the row to work out.
+     * @param out room for one row of words.
+     */
+    private void dilate(long[] layer, int r, long[] out){
+        int row = r * words;
+        int above = r > 0 ? row - words : -1;
+        int below = r < rows - 1 ? row + words : -1;
+        for(int w = 0; w < words; w++){
+            long column = layer[row + w] | (above < 0 ? 0 : layer[above + w]) | (below < 0 ? 0 : layer[below + w]);
+            long before = w == 0 ? 0 : layer[row + w - 1] | (above < 0 ? 0 : layer[above + w - 1]) | (below < 0 ? 0 : layer[below + w - 1]);
+            long after = w == words - 1 ? 0 : layer[row + w + 1] | (above < 0 ? 0 : layer[above + w + 1]) | (below < 0 ? 0 : layer[below + w + 1]);
+            out[w] = column | column << 1 | before >>> 63 | column >>> 1 | after << 63;
+        }
+    }
+}
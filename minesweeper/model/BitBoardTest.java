@@ -0,0 +1,131 @@
+/**
+ * Testing Class to represent a BitBoard.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+@Testable
+public class BitBoardTest {
+
+    //Widths either side of a word boundary, where the shifts carry between longs.
+    private static final int[] WIDTHS = {1, 2, 63, 64, 65, 130};
+
+    /**
+     * Makes a board with some cells uncovered and some flagged.
+     */
+    private static Board randomBoard(int rows, int cols, long seed){
+        SplittableRandom random = new SplittableRandom(seed);
+        Board board = new Board(rows, cols, 0.3, random);
+        board.makeBoard();
+        for(int i = 0; i < rows * cols; i++){
+            int roll = random.nextInt(4);
+            if(roll == 0 && !board.isMine(i)){
+                board.revealFrom(i);
+            } else if(roll == 1 && !board.isRevealed(i)){
+                board.setFlagged(i, true);
+            }
+        }
+        return board;
+    }
+
+    private static boolean nextToUncovered(Board board, int index){
+        for(int n : board.getAdjacentIndices(index).toArray()){
+            if(board.isRevealed(n)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int flagsAround(Board board, int index){
+        int flags = 0;
+        for(int n : board.getAdjacentIndices(index).toArray()){
+            if(board.isFlagged(n)){
+                flags++;
+            }
+        }
+        return flags;
+    }
+
+    @Test
+    public void testCountsMatchTheBoard(){
+        for(int cols : WIDTHS){
+            Board board = randomBoard(5, cols, cols);
+            BitBoard bits = new BitBoard(board);
+            for(int i = 0; i < 5 * cols; i++){
+                assertEquals(board.isMine(i), bits.isMine(i));
+                assertEquals(board.getAdjacentMines(i), bits.getCount(i), "cell " + i + " of width " + cols);
+            }
+        }
+    }
+
+    @Test
+    public void testFrontierAndUnsatisfied(){
+        for(int cols : WIDTHS){
+            Board board = randomBoard(6, cols, 100 + cols);
+            BitBoard bits = new BitBoard(board);
+            int frontier = 0;
+            int unsatisfied = 0;
+            for(int i = 0; i < 6 * cols; i++){
+                boolean isFrontier = !board.isRevealed(i) && nextToUncovered(board, i);
+                boolean isUnsatisfied = board.isRevealed(i) && flagsAround(board, i) != board.getAdjacentMines(i);
+                assertEquals(isFrontier, bits.isFrontier(i), "cell " + i + " of width " + cols);
+                assertEquals(isUnsatisfied, bits.isUnsatisfied(i), "cell " + i + " of width " + cols);
+                frontier += isFrontier ? 1 : 0;
+                unsatisfied += isUnsatisfied ? 1 : 0;
+            }
+            assertEquals(frontier, bits.getFrontierCount());
+            assertEquals(unsatisfied, bits.getUnsatisfiedCount());
+            assertEquals(frontier, bits.getFrontier().size());
+        }
+    }
+
+    @Test
+    public void testPlayerViewHidesMines(){
+        Board board = randomBoard(4, 70, 7);
+        Minesweeper game = new Minesweeper(4, 70, board);
+        BitBoard fromBoard = new BitBoard(board);
+        BitBoard fromView = new BitBoard(game.getPlayerView());
+        for(int i = 0; i < 4 * 70; i++){
+            assertFalse(fromView.isMine(i));
+            assertEquals(fromBoard.isFrontier(i), fromView.isFrontier(i));
+            assertEquals(fromBoard.isUnsatisfied(i), fromView.isUnsatisfied(i));
+        }
+        assertArrayEquals(fromBoard.getUnsatisfied().toArray(), fromView.getUnsatisfied().toArray());
+    }
+
+    @Test
+    public void testRecomputeAfterChanges(){
+        //A mine in the corner of a 3x3 board, nothing uncovered yet.
+        Board board = new Board(3, 3, 1);
+        board.makeBoard();
+        BitBoard bits = new BitBoard(board);
+        int mine = board.getMineIndices().get(0);
+        int safe = mine == 0 ? 8 : 0;
+        assertEquals(0, bits.getFrontierCount());
+
+        bits.setRevealed(safe, true);
+        bits.recompute();
+        assertTrue(bits.isRevealed(safe));
+        assertEquals(board.getAdjacentIndices(safe).size(), bits.getFrontierCount());
+
+        //The number is only satisfied once the mine is flagged, if it touches the mine at all.
+        assertEquals(board.getAdjacentMines(safe) != 0, bits.isUnsatisfied(safe));
+        bits.setFlagged(mine, true);
+        bits.recompute();
+        assertFalse(bits.isUnsatisfied(safe));
+    }
+}
@@ -7,53 +7,201 @@
 
 package minesweeper.model;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Class to represent a Board which holds the Minesweeper gameboard.
- * Holds all cells in a list.
- * Holds all mines in a list.
+ * Holds every cell packed into bytes, indexed by row * cols + col and split into
+ * copy-on-write blocks so snapshots of a board are cheap.
+ * Holds the indices of all mines.
  * Creates the mines.
  * Verifies cell location logic.
+ * Cells handed out by this class are thin views over the packed storage.
  * @author Bibhash
  */
 public class Board {
+
+    //Layout of one packed cell: the low nibble holds the adjacent mine count,
+    //the two bits above it hold the cell type and the next one the player's flag.
+    static final int COUNT_MASK = 0x0F;
+    static final int MINE_BIT = 0x10;
+    static final int REVEALED_BIT = 0x20;
+    static final int FLAG_BIT = 0x40;
+
+    //The packed cells are split into blocks which boards made by the copy constructor share
+    //until one side writes to them.
+    private static final int BLOCK_SHIFT = 12;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    //Neighbour directions, in the order getAdjacentCells() has always returned them:
+    //down, up, left, right, down-left, up-left, down-right, up-right.
+    private static final int[] DROW = {1, -1, 0, 0, 1, -1, 1, -1};
+    private static final int[] DCOL = {0, 0, -1, 1, -1, -1, 1, 1};
+
+    private static final int EDGE_TOP = 1;
+    private static final int EDGE_BOTTOM = 2;
+    private static final int EDGE_LEFT = 4;
+    private static final int EDGE_RIGHT = 8;
+
+    //For every combination of board edges a cell touches, which of the 8 directions stay on the board.
+    private static final int[] NEIGHBOR_MASKS = new int[16];
+    static {
+        for(int edges = 0; edges < 16; edges++){
+            int mask = 0;
+            for(int d = 0; d < 8; d++){
+                boolean off = (DROW[d] < 0 && (edges & EDGE_TOP) != 0)
+                           || (DROW[d] > 0 && (edges & EDGE_BOTTOM) != 0)
+                           || (DCOL[d] < 0 && (edges & EDGE_LEFT) != 0)
+                           || (DCOL[d] > 0 && (edges & EDGE_RIGHT) != 0);
+                if(!off){
+                    mask |= 1 << d;
+                }
+            }
+            NEIGHBOR_MASKS[edges] = mask;
+        }
+    }
     
     private final int row;
     private final int col;
     private final int mineCount;
+    private final RandomGenerator random;
+    private final int[] neighborOffsets;
+    private final int[] scratch = new int[8];
     
-    private List<List<Cell>> cells;
-    private List<Cell> mineCells;
-    private List<Cell> totalCells;
+    private byte[][] blocks;
+    private boolean[] ownedBlocks;
+    private int[] mines;
+    private boolean minesShared;
+    private int placedMines;
+    private int revealedCount;
+    //Cells which are neither a mine nor uncovered. The game is won when this reaches zero.
+    private int coveredSafeCount;
+    //The covered cells and the covered safe cells, built the first time anyone asks for them
+    //and kept up to date by every write after that. Null until then.
+    private IntSet covered;
+    private IntSet coveredSafe;
+
+    //Every opening (a connected region of cells with no adjacent mines) and its numbered border,
+    //labelled once. openingOf maps a zero cell to its opening (other cells hold junk), and
+    //openingCells[openingStart[k]] up to openingStart[k + 1] lists the cells of opening k.
+    //Null when the mines have moved since.
+    private int[] openingOf;
+    private int[] openingStart;
+    private int[] openingCells;
     
     /**
-     * Constructor which initializes the row and columns of board, 2D list of cells, and an 
-     * instance of the Minesweeper.
+     * Constructor which initializes the row and columns of board. The packed storage is
+     * allocated by makeBoard(). The board gets row + col mines.
      * @param row of the board.
      * @param col of the board.
      * @author Bibhash
      */
     public Board(int row, int col){
+        this(row, col, row + col, new SplittableRandom());
+    }
+
+    /**
+     * Constructor for a board with an explicit number of mines.
+     * @param row of the board.
+     * @param col of the board.
+     * @param mineCount number of mines to place.
+     */
+    public Board(int row, int col, int mineCount){
+        this(row, col, mineCount, new SplittableRandom());
+    }
+
+    /**
+     * Constructor for a board whose mines are drawn from the given generator, so the
+     * same seed always gives the same board. Any generator works, e.g. new Random(seed)
+     * or new SplittableRandom(seed).
+     * @param row of the board.
+     * @param col of the board.
+     * @param mineCount number of mines to place.
+     * @param random generator used to place the mines.
+     */
+    public Board(int row, int col, int mineCount, RandomGenerator random){
+        if(mineCount < 0 || mineCount > row * col){
+            throw new IllegalArgumentException("Cannot place " + mineCount + " mines on a " + row + "x" + col + " board");
+        }
         this.row = row;
         this.col = col;
-        this.mineCount = row + col;
-        this.cells = new ArrayList<>();
-        this.mineCells = new ArrayList<>();
-        this.totalCells = new ArrayList<>();
+        this.mineCount = mineCount;
+        this.random = random;
+        this.neighborOffsets = new int[8];
+        for(int d = 0; d < 8; d++){
+            neighborOffsets[d] = DROW[d] * col + DCOL[d];
+        }
+    }
+
+    /**
+     * Copy constructor which snapshots another board. Both boards share the packed
+     * storage and only copy a block of it the first time either of them writes there,
+     * so making a snapshot costs one flag per block and playing on it costs the blocks
+     * it actually changes.
+     * @param board the board to snapshot.
+     */
+    public Board(Board board){
+        this.row = board.row;
+        this.col = board.col;
+        this.mineCount = board.mineCount;
+        this.random = board.random;
+        this.neighborOffsets = board.neighborOffsets;
+
+        if(board.blocks != null){
+            Arrays.fill(board.ownedBlocks, false);
+            this.blocks = board.blocks.clone();
+            this.ownedBlocks = new boolean[blocks.length];
+            board.minesShared = true;
+            this.mines = board.mines;
+            this.minesShared = true;
+            this.placedMines = board.placedMines;
+            this.revealedCount = board.revealedCount;
+            this.coveredSafeCount = board.coveredSafeCount;
+            //The covered sets are left out: a snapshot builds its own from its own cells
+            //if anyone asks, so neither board ever has to copy the other's sets.
+            this.openingOf = board.openingOf;
+            this.openingStart = board.openingStart;
+            this.openingCells = board.openingCells;
+        }
+    }
+
+    /**
+     * Constructor for a board where the given fraction of cells are mines.
+     * @param row of the board.
+     * @param col of the board.
+     * @param density fraction of cells which are mines, between 0 and 1.
+     * @param random generator used to place the mines.
+     */
+    public Board(int row, int col, double density, RandomGenerator random){
+        this(row, col, (int)Math.round((long)row * col * density), random);
     }
 
     //------------- Getters and Setters --------------//
 
     /**
      * Method which returns the 2D list of cells of the board.
+     * The list is a read through view of the packed storage.
      * @return the 2d list of cells.
      * @author Bibhash
      */
     public List<List<Cell>> getCells(){
-        return this.cells;
+        return new AbstractList<List<Cell>>() {
+            @Override
+            public List<Cell> get(int r){
+                return new CellRange(r * col, col);
+            }
+
+            @Override
+            public int size(){
+                return blocks == null ? 0 : row;
+            }
+        };
     }
 
     /**
@@ -62,82 +210,596 @@ public class Board {
      * @author Bibhash
      */
     public List<Cell> getMineCells(){
-        return mineCells;
+        return new AbstractList<Cell>() {
+            @Override
+            public Cell get(int i){
+                return new Cell(Board.this, mines[i]);
+            }
+
+            @Override
+            public int size(){
+                return placedMines;
+            }
+        };
+    }
+
+    /**
+     * Same as getMineCells(), as board indices. The list shares the board's own array of
+     * mines until the board next moves one.
+     * @return the indices of the mines.
+     */
+    public IntList getMineIndices(){
+        if(mines == null){
+            return new IntList();
+        }
+        minesShared = true;
+        return new IntList(mines, placedMines);
     }
 
     /**
      * Method which returns a total list of all cells of the board.
+     * The list is a read through view of the packed storage.
      * @return the list of cells.
      */
     public List<Cell> getTotalCells(){
-        return this.totalCells;
+        return new CellRange(0, blocks == null ? 0 : row * col);
+    }
+
+    public int getRows(){
+        return this.row;
+    }
+
+    public int getCols(){
+        return this.col;
+    }
+
+    public int getMineCount(){
+        return this.mineCount;
+    }
+
+    //------------- Packed storage access -----------------//
+
+    /**
+     * Converts a row and column into an index of the packed storage.
+     * @param r row of the cell.
+     * @param c column of the cell.
+     * @return the index of the cell.
+     */
+    public int indexOf(int r, int c){
+        return r * col + c;
+    }
+
+    /**
+     * Converts an index of the packed storage back into a Location.
+     * @param index index of the cell.
+     * @return the location of the cell.
+     */
+    public Location locationOf(int index){
+        return new Location(index / col, index % col);
+    }
+
+    /**
+     * Reads the packed bits of one cell.
+     * @param index index of the cell.
+     * @return the packed bits.
+     */
+    private int bits(int index){
+        return blocks[index >>> BLOCK_SHIFT][index & BLOCK_MASK];
+    }
+
+    /**
+     * Writes the packed bits of one cell, copying its block first if it is shared with another board.
+     * @param index index of the cell.
+     * @param bits the new packed bits.
+     */
+    private void setBits(int index, int bits){
+        int block = index >>> BLOCK_SHIFT;
+        if(!ownedBlocks[block]){
+            blocks[block] = blocks[block].clone();
+            ownedBlocks[block] = true;
+        }
+        int old = blocks[block][index & BLOCK_MASK];
+        if(((old ^ bits) & REVEALED_BIT) != 0){
+            revealedCount += (bits & REVEALED_BIT) != 0 ? 1 : -1;
+        }
+        boolean wasCoveredSafe = (old & (MINE_BIT | REVEALED_BIT)) == 0;
+        boolean isCoveredSafe = (bits & (MINE_BIT | REVEALED_BIT)) == 0;
+        if(wasCoveredSafe != isCoveredSafe){
+            coveredSafeCount += isCoveredSafe ? 1 : -1;
+        }
+        if(covered != null && ((old ^ bits) & (MINE_BIT | REVEALED_BIT)) != 0){
+            if((bits & REVEALED_BIT) == 0){
+                covered.add(index);
+            } else {
+                covered.remove(index);
+            }
+            if(isCoveredSafe){
+                coveredSafe.add(index);
+            } else {
+                coveredSafe.remove(index);
+            }
+        }
+        blocks[block][index & BLOCK_MASK] = (byte)bits;
+    }
+
+    /**
+     * Reads the type of the cell stored at the given index.
+     * @param index index of the cell.
+     * @return the type of the cell.
+     */
+    public CellType getType(int index){
+        int bits = bits(index);
+        if((bits & MINE_BIT) != 0){
+            return (bits & REVEALED_BIT) != 0 ? CellType.BOMB_CHECKED : CellType.BOMB_UNCHECKED;
+        }
+        return (bits & REVEALED_BIT) != 0 ? CellType.SAFE_CHECKED : CellType.SAFE_UNCHECKED;
+    }
+
+    /**
+     * Writes the type of the cell stored at the given index.
+     * Turning a safe cell into a mine (or back) goes through the mine placement code,
+     * so the adjacent counts of the neighbours stay correct.
+     * @param index index of the cell.
+     * @param type the new type of the cell.
+     */
+    public void setType(int index, CellType type){
+        boolean mine = type == CellType.BOMB_UNCHECKED || type == CellType.BOMB_CHECKED;
+        if(mine && !isMine(index)){
+            placeMine(index);
+        } else if(!mine && isMine(index)){
+            removeMine(index);
+        }
+
+        if(type == CellType.BOMB_CHECKED || type == CellType.SAFE_CHECKED){
+            setBits(index, bits(index) | REVEALED_BIT);
+        } else {
+            setBits(index, bits(index) & ~REVEALED_BIT);
+        }
+    }
+
+    /**
+     * Covers a revealed cell again. Only used to undo selections.
+     * @param index index of the cell.
+     */
+    void cover(int index){
+        setBits(index, bits(index) & ~REVEALED_BIT);
+    }
+
+    /**
+     * Reads the precomputed number of mines around the cell at the given index.
+     * @param index index of the cell.
+     * @return the number of adjacent mines.
+     */
+    public int getAdjacentMines(int index){
+        return bits(index) & COUNT_MASK;
+    }
+
+    public boolean isMine(int index){
+        return (bits(index) & MINE_BIT) != 0;
+    }
+
+    public boolean isRevealed(int index){
+        return (bits(index) & REVEALED_BIT) != 0;
+    }
+
+    /**
+     * @param index index of the cell.
+     * @return true if the player has flagged the cell.
+     */
+    public boolean isFlagged(int index){
+        return (bits(index) & FLAG_BIT) != 0;
+    }
+
+    /**
+     * Sets or clears the player's flag on a cell. Flags are only marks, they don't change the type.
+     * @param index index of the cell.
+     * @param flagged whether the cell should be flagged.
+     */
+    void setFlagged(int index, boolean flagged){
+        setBits(index, flagged ? bits(index) | FLAG_BIT : bits(index) & ~FLAG_BIT);
+    }
+
+    /**
+     * @return how many cells are uncovered, kept up to date by every write.
+     */
+    public int getRevealedCount(){
+        return revealedCount;
+    }
+
+    /**
+     * @return how many safe cells are still covered, kept up to date by every write.
+     */
+    public int getCoveredSafeCount(){
+        return coveredSafeCount;
+    }
+
+    /**
+     * @return how many cells are still covered, mines included.
+     */
+    public int getCoveredCount(){
+        return blocks == null ? 0 : row * col - revealedCount;
+    }
+
+    //------------- Covered cell sets -----------------//
+
+    /**
+     * Gets every covered cell, in no particular order. The list is a copy, so it costs
+     * as much as there are covered cells and doesn't change when the board does.
+     * @return the covered locations.
+     */
+    public List<Location> getCoveredCells(){
+        return toLocations(copyOf(getCoveredIndices()));
+    }
+
+    /**
+     * Gets every covered cell which isn't a mine, in no particular order. The list is a
+     * copy like getCoveredCells().
+     * @return the covered safe locations.
+     */
+    public List<Location> getCoveredSafeCells(){
+        return toLocations(copyOf(getCoveredSafeIndices()));
+    }
+
+    /**
+     * Same as getCoveredCells(), as board indices, but a view of the board's own set which
+     * costs nothing to make. Read it before the board next changes; after that it throws
+     * ConcurrentModificationException.
+     * @return the indices of the covered cells.
+     */
+    public IntList getCoveredIndices(){
+        return blocks == null ? new IntList() : coveredSet().view();
+    }
+
+    /**
+     * Same as getCoveredSafeCells(), as board indices, and a view like getCoveredIndices().
+     * @return the indices of the covered safe cells.
+     */
+    public IntList getCoveredSafeIndices(){
+        if(blocks == null){
+            return new IntList();
+        }
+        coveredSet();
+        return coveredSafe.view();
+    }
+
+    private static IntList copyOf(IntList indices){
+        int size = indices.size();
+        IntList copy = new IntList(size);
+        for(int i = 0; i < size; i++){
+            copy.add(indices.get(i));
+        }
+        return copy;
+    }
+
+    /**
+     * Picks a covered cell uniformly at random, mines included, in constant time.
+     * @param random generator to draw from.
+     * @return the index of the cell, or -1 if every cell is uncovered.
+     */
+    public int randomCoveredCell(RandomGenerator random){
+        if(getCoveredCount() == 0){
+            return -1;
+        }
+        IntSet cells = coveredSet();
+        return cells.get(random.nextInt(cells.size()));
+    }
+
+    /**
+     * Picks a covered safe cell uniformly at random, in constant time.
+     * @param random generator to draw from.
+     * @return the index of the cell, or -1 if no safe cell is covered.
+     */
+    public int randomCoveredSafeCell(RandomGenerator random){
+        if(blocks == null || coveredSafeCount == 0){
+            return -1;
+        }
+        coveredSet();
+        return coveredSafe.get(random.nextInt(coveredSafe.size()));
+    }
+
+    /**
+     * Builds both covered cell sets with one pass over the board if they don't exist yet.
+     * From then on every write keeps them up to date.
+     * @return the set of covered cells.
+     */
+    private IntSet coveredSet(){
+        if(covered == null){
+            int total = row * col;
+            covered = new IntSet(total);
+            coveredSafe = new IntSet(total);
+            for(int i = 0; i < total; i++){
+                int bits = bits(i);
+                if((bits & REVEALED_BIT) == 0){
+                    covered.add(i);
+                    if((bits & MINE_BIT) == 0){
+                        coveredSafe.add(i);
+                    }
+                }
+            }
+        }
+        return covered;
+    }
+
+    /**
+     * Wraps a list of board indices as a list of locations, made one at a time as they are read.
+     * @param indices the indices.
+     * @return the same cells as locations.
+     */
+    public List<Location> toLocations(IntList indices){
+        return new AbstractList<Location>() {
+            @Override
+            public Location get(int i){
+                return locationOf(indices.get(i));
+            }
+
+            @Override
+            public int size(){
+                return indices.size();
+            }
+        };
     }
 
     //------------- Functional Methods -----------------//
 
+    /**
+     * Uncovers the safe cell at the given index. If it has no adjacent mines, the whole
+     * opening it belongs to and the opening's numbered border are uncovered too, straight
+     * from the list built by labelOpenings(), without looking at any neighbours.
+     * @param index index of a covered safe cell.
+     * @return the indices of every cell uncovered, in the order they were uncovered.
+     */
+    public int[] revealFrom(int index){
+        if((bits(index) & COUNT_MASK) != 0){
+            setBits(index, bits(index) | REVEALED_BIT);
+            return new int[]{index};
+        }
+        if(openingOf == null){
+            labelOpenings();
+        }
+
+        //The opening's own length is as much room as it can need, and usually exactly what
+        //it needs, since openings are mostly uncovered all at once.
+        int opening = openingOf[index];
+        int[] revealed = new int[openingStart[opening + 1] - openingStart[opening]];
+        int count = 0;
+        for(int i = openingStart[opening]; i < openingStart[opening + 1]; i++){
+            int cell = openingCells[i];
+            if((bits(cell) & REVEALED_BIT) == 0){
+                setBits(cell, bits(cell) | REVEALED_BIT);
+                revealed[count++] = cell;
+            }
+        }
+        return count == revealed.length ? revealed : Arrays.copyOf(revealed, count);
+    }
+
+    /**
+     * Labels every opening on the board in one linear pass. Each opening is walked breadth
+     * first, using its own stretch of openingCells as the work queue: zero cells are listed
+     * as they are found and border cells as they are first touched, and the walk expands
+     * the zero cells in the order they were listed. Each border cell is listed once for
+     * every opening it touches. The only arrays made are the ones kept.
+     */
+    private void labelOpenings(){
+        int total = row * col;
+        //A zero cell holds its opening. A numbered cell holds -2 - the last opening which
+        //listed it, so it is listed once per opening without a second array.
+        int[] labels = new int[total];
+        Arrays.fill(labels, -1);
+        int[] starts = new int[16];
+        int[] members = new int[64];
+        int size = 0;
+        int openings = 0;
+
+        for(int start = 0; start < total; start++){
+            if(labels[start] != -1 || (bits(start) & (COUNT_MASK | MINE_BIT)) != 0){
+                continue;
+            }
+            if(openings + 1 >= starts.length){
+                starts = Arrays.copyOf(starts, starts.length * 2);
+            }
+            starts[openings] = size;
+
+            labels[start] = openings;
+            if(size == members.length){
+                members = Arrays.copyOf(members, members.length * 2);
+            }
+            members[size++] = start;
+            for(int head = starts[openings]; head < size; head++){
+                int current = members[head];
+                if((bits(current) & COUNT_MASK) != 0){
+                    continue;
+                }
+                int count = neighbors(current, scratch);
+                for(int i = 0; i < count; i++){
+                    int next = scratch[i];
+                    boolean zero = (bits(next) & COUNT_MASK) == 0;
+                    if(zero ? labels[next] == -1 : labels[next] != -2 - openings){
+                        labels[next] = zero ? openings : -2 - openings;
+                        if(size == members.length){
+                            members = Arrays.copyOf(members, members.length * 2);
+                        }
+                        members[size++] = next;
+                    }
+                }
+            }
+            openings++;
+        }
+        starts[openings] = size;
+
+        openingOf = labels;
+        openingStart = starts;
+        openingCells = members;
+    }
+
     /**
      * Method which populates the board with cells.
      * @author Bibhash 
      */
     public void makeBoard(){
-        List<Cell> cellRow = new ArrayList<>();
-
-        for(int i=0; i<row; i++){
-            for(int j=0; j<col; j++){
-                Cell cell = new Cell(new Location(i, j), CellType.SAFE_UNCHECKED);
-                cellRow.add(cell);
-                totalCells.add(cell);
-            }
-            cells.add(cellRow);
-            cellRow = new ArrayList<>();
+        int total = row * col;
+        int blockCount = (total + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+        blocks = new byte[blockCount][];
+        for(int b = 0; b < blockCount; b++){
+            blocks[b] = new byte[Math.min(BLOCK_SIZE, total - (b << BLOCK_SHIFT))];
         }
+        ownedBlocks = new boolean[blockCount];
+        Arrays.fill(ownedBlocks, true);
+        mines = new int[mineCount];
+        minesShared = false;
+        placedMines = 0;
+        revealedCount = 0;
+        coveredSafeCount = total;
+        covered = null;
+        coveredSafe = null;
 
-        mineCells = createMines(cells);
+        createMines();
+        labelOpenings();
     }
 
     /**
-     * Method which updates some cells of the board to mines and stores it into a List.
+     * Method which updates some cells of the board to mines and stores their indices.
+     * Uses Floyd's sampling, so every mine draws exactly one number from the board's
+     * generator and the mine bits double as the set of cells already chosen.
+     * The adjacent counts are filled in afterwards by fillCounts().
      * 
-     * @param cells the 2d list of cells.
-     * @return list of mines.
      * @author Bibhash
      */
-    private List<Cell> createMines(List<List<Cell>> cells){
+    private void createMines(){
+        int total = row * col;
+
+        for(int j = total - mineCount; j < total; j++){
+            int index = random.nextInt(j + 1);
+            if(isMine(index)){
+                //Already picked, j itself can't have been picked yet.
+                index = j;
+            }
+            setBits(index, bits(index) | MINE_BIT);
+            mines[placedMines++] = index;
+        }
+
+        fillCounts();
+    }
+
+    /**
+     * Writes the adjacent mine count of every cell in one pass over the board.
+     * Keeps the mines in each column of a 3 row window, so each count is the sum of
+     * three column totals, minus the cell itself.
+     */
+    private void fillCounts(){
+        int[] columnMines = new int[col + 2];
+
+        for(int r = 0; r < row; r++){
+            for(int c = 0; c < col; c++){
+                int sum = 0;
+                for(int dr = -1; dr <= 1; dr++){
+                    int nr = r + dr;
+                    if(nr >= 0 && nr < row && (bits(nr * col + c) & MINE_BIT) != 0){
+                        sum++;
+                    }
+                }
+                columnMines[c + 1] = sum;
+            }
+            for(int c = 0; c < col; c++){
+                int index = r * col + c;
+                int self = (bits(index) & MINE_BIT) != 0 ? 1 : 0;
+                int count = columnMines[c] + columnMines[c + 1] + columnMines[c + 2] - self;
+                setBits(index, (bits(index) & ~COUNT_MASK) | count);
+            }
+        }
+    }
+
+    /**
+     * Moves a mine to another cell, keeping the adjacent counts up to date.
+     * @param from location of the mine.
+     * @param to location of a safe cell to move it to.
+     * @throws MinesweeperException if either location does not exist, from is not a mine or to already is one.
+     */
+    public void moveMine(Location from, Location to) throws MinesweeperException{
+        if(!isRealLocation(from) || !isRealLocation(to)){
+            throw new MinesweeperException("Cannot move a mine from " + from + " to " + to);
+        }
+        int fromIndex = indexOf(from.getRow(), from.getCol());
+        int toIndex = indexOf(to.getRow(), to.getCol());
+        if(!isMine(fromIndex) || isMine(toIndex)){
+            throw new MinesweeperException("Cannot move a mine from " + from + " to " + to);
+        }
+        removeMine(fromIndex);
+        placeMine(toIndex);
+    }
 
-        while(mineCells.size() < mineCount){
-            int mineRow = new Random().nextInt(row); 
-            int mineCol = new Random().nextInt(col);
-            cells.get(mineRow).get(mineCol).updateCellType(CellType.BOMB_UNCHECKED);
-            Cell mineCell = cells.get(mineRow).get(mineCol);
-            
-            if(!mineCells.contains(mineCell)){
-                mineCells.add(mineCell);
+    /**
+     * Turns the cell at the given index into a mine and bumps the count of every neighbour.
+     * @param index index of a safe cell.
+     */
+    private void placeMine(int index){
+        setBits(index, bits(index) | MINE_BIT);
+        openingOf = null;
+        if(minesShared || placedMines == mines.length){
+            mines = Arrays.copyOf(mines, Math.max(placedMines + 1, mines.length * 2));
+            minesShared = false;
+        }
+        mines[placedMines++] = index;
+
+        int count = neighbors(index, scratch);
+        for(int i = 0; i < count; i++){
+            setBits(scratch[i], bits(scratch[i]) + 1);
+        }
+    }
+
+    /**
+     * Turns the mine at the given index back into a safe cell and lowers the count of every neighbour.
+     * @param index index of a mine.
+     */
+    private void removeMine(int index){
+        setBits(index, bits(index) & ~MINE_BIT);
+        openingOf = null;
+        if(minesShared){
+            mines = mines.clone();
+            minesShared = false;
+        }
+        for(int i = 0; i < placedMines; i++){
+            if(mines[i] == index){
+                mines[i] = mines[--placedMines];
+                break;
             }
         }
 
-        return mineCells;
+        int count = neighbors(index, scratch);
+        for(int i = 0; i < count; i++){
+            setBits(scratch[i], bits(scratch[i]) - 1);
+        }
     }
 
     /**
      * Takes a location as an argument, returns whether it is a real location on the board.
      * DOES NOT CONFIRM WHETHER THIS LOCATION IS A VALID MOVE.
+     * No location is real until makeBoard() has been called.
      * author: jack
      * @param location the location to check.
      * @return whether the location is real on the board or not.
      */
     public boolean isRealLocation(Location location){
-        //Loop through all the cells, if it finds the location on the list, it's true, else it returns false.
-        //This one is pretty simple, maybe it could be optimized.
-        for(int i = 0; i<cells.size(); i++){
-            List<Cell> currentRow = cells.get(i);
-            for(Cell cell : currentRow){
-                if(cell.getLocation().getRow() == location.getRow() && cell.getLocation().getCol() == location.getCol()){
-                    return true;
-                }
-            }
-        }
+        return isRealLocation(location.getRow(), location.getCol());
+    }
 
-        return false;
+    /**
+     * Bounds check for a row and column, see isRealLocation(Location).
+     * @param r row to check.
+     * @param c column to check.
+     * @return whether the row and column are on the board or not.
+     */
+    public boolean isRealLocation(int r, int c){
+        return blocks != null && r >= 0 && r < row && c >= 0 && c < col;
+    }
+
+    /**
+     * Looks a cell up without throwing, for loops where going off the board is normal.
+     * @param r row of the cell.
+     * @param c column of the cell.
+     * @return the index of the cell, or -1 if it is not on the board.
+     */
+    public int indexAt(int r, int c){
+        return isRealLocation(r, c) ? indexOf(r, c) : -1;
     }
 
     /**
@@ -149,16 +811,35 @@ public class Board {
      * @throws MinesweeperException
      */
     public Cell getCellAtLocation(Location location) throws MinesweeperException{
-        //Loop through all the cells, if it finds the location on the list, it's true, else, return false.
-        //This one is pretty simple, maybe it could be optimized.
-        
         if(isRealLocation(location)){
-            return cells.get(location.getRow()).get(location.getCol());
+            return new Cell(this, indexOf(location.getRow(), location.getCol()));
         } else {
             throw new MinesweeperException("That cell or location: " + location.toString() + " does not exist");
         }
     }
 
+    /**
+     * Writes the indices of all neighbours of a cell into out, using the precomputed
+     * offset and edge mask tables, so no bounds are checked per neighbour.
+     * @param index index of the cell.
+     * @param out array with room for at least 8 indices.
+     * @return how many neighbours were written.
+     */
+    public int neighbors(int index, int[] out){
+        int r = index / col;
+        int c = index - r * col;
+        int edges = (r == 0 ? EDGE_TOP : 0) | (r == row - 1 ? EDGE_BOTTOM : 0)
+                  | (c == 0 ? EDGE_LEFT : 0) | (c == col - 1 ? EDGE_RIGHT : 0);
+        int mask = NEIGHBOR_MASKS[edges];
+        int count = 0;
+        for(int d = 0; d < 8; d++){
+            if((mask & (1 << d)) != 0){
+                out[count++] = index + neighborOffsets[d];
+            }
+        }
+        return count;
+    }
+
     /**
      * returns all adjacent cells to any given cell.
      * @author Jack Noble
@@ -167,80 +848,87 @@ public class Board {
      */
     public ArrayList<Cell> getAdjacentCells(Cell cell){
         Location location = cell.getLocation();
-        ArrayList<Cell> cells = new ArrayList<>();
-        
-        try {
-            //To the right -1
-            if(isRealLocation(new Location(location.getRow()+1, location.getCol()))){
-                cells.add(getCellAtLocation(new Location(location.getRow()+1, location.getCol())));
-            }
-            //To the left +1
-            if(isRealLocation(new Location(location.getRow()-1, location.getCol()))){
-                cells.add(getCellAtLocation(new Location(location.getRow()-1, location.getCol())));
-            }
-            //To the up
-            if(isRealLocation(new Location(location.getRow(), location.getCol()-1))){
-                cells.add(getCellAtLocation(new Location(location.getRow(), location.getCol()-1)));
-            }
-            //To the down
-            if(isRealLocation(new Location(location.getRow(), location.getCol()+1))){
-                cells.add(getCellAtLocation(new Location(location.getRow(), location.getCol()+1)));
-            }
-            //Top right
-            if(isRealLocation(new Location(location.getRow()+1, location.getCol()-1))){
-                cells.add(getCellAtLocation(new Location(location.getRow()+1, location.getCol()-1)));
-            }
-            //Top left
-            if(isRealLocation(new Location(location.getRow()-1, location.getCol()-1))){
-                cells.add(getCellAtLocation(new Location(location.getRow()-1, location.getCol()-1)));
-            }
-            //Bottom right
-            if(isRealLocation(new Location(location.getRow()+1, location.getCol()+1))){
-                cells.add(getCellAtLocation(new Location(location.getRow()+1, location.getCol()+1)));
-            }
-            //Bottom left
-            if(isRealLocation(new Location(location.getRow()-1, location.getCol()+1))){
-                cells.add(getCellAtLocation(new Location(location.getRow()-1, location.getCol()+1)));
-            }
-        } catch (MinesweeperException e) {
-            e.printStackTrace();
+        ArrayList<Cell> cells = new ArrayList<>(8);
+        if(!isRealLocation(location)){
+            return cells;
+        }
+
+        int[] adjacent = new int[8];
+        int count = neighbors(indexOf(location.getRow(), location.getCol()), adjacent);
+        for(int i = 0; i < count; i++){
+            cells.add(new Cell(this, adjacent[i]));
         }
-        
         return cells;
     }
 
+    /**
+     * Same as getAdjacentCells(), as board indices. Hot loops should call neighbors()
+     * with an array they reuse instead, which allocates nothing.
+     * @param index index of the cell.
+     * @return the indices of the cells around it.
+     */
+    public IntList getAdjacentIndices(int index){
+        int[] adjacent = new int[8];
+        return new IntList(adjacent, neighbors(index, adjacent));
+    }
+
     /**
      * Returns number of mines around any given cell.
+     * Reads the count stored when the mines were placed.
      * @author Jack Noble
      * @param cell
      * @return
      */
     public int getMinesAroundCell(Cell cell){
-        int mineCount = 0;
-        if(isRealLocation(cell.getLocation())){
-            ArrayList<Cell> cells = getAdjacentCells(cell);
-            for(Cell e : cells){
-                if(e.getType() == CellType.BOMB_CHECKED || e.getType() == CellType.BOMB_UNCHECKED){
-                    mineCount++;
-                }
-            }
-        } else {
+        Location location = cell.getLocation();
+        if(!isRealLocation(location)){
             return 0;
         }
-
-        return mineCount;
+        return getAdjacentMines(indexOf(location.getRow(), location.getCol()));
     }
 
+    /**
+     * Gets every cell which isn't a mine, covered or not.
+     * @return the safe locations, in board order.
+     */
     public List<Location> getSafeCells(){
-        List<Location> safeCells = new ArrayList<>();
-        for(Cell cell : totalCells){
-            if(cell.getType() != CellType.BOMB_CHECKED || cell.getType() != CellType.BOMB_UNCHECKED){
-                safeCells.add(cell.getLocation());
+        int total = blocks == null ? 0 : row * col;
+        List<Location> safeCells = new ArrayList<>(total - placedMines);
+        for(int i = 0; i < total; i++){
+            if(!isMine(i)){
+                safeCells.add(locationOf(i));
             }
         }
         return safeCells;
     }
 
+    /**
+     * A contiguous run of cells in the packed storage, viewed as a list of Cells.
+     * Used for a single row and for the whole board.
+     */
+    private class CellRange extends AbstractList<Cell> {
+        private final int start;
+        private final int length;
+
+        CellRange(int start, int length){
+            this.start = start;
+            this.length = length;
+        }
+
+        @Override
+        public Cell get(int i){
+            if(i < 0 || i >= length){
+                throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + length);
+            }
+            return new Cell(Board.this, start + i);
+        }
+
+        @Override
+        public int size(){
+            return length;
+        }
+    }
+
     /**
      * Main function for testing all the functions of this class.
      * @param args
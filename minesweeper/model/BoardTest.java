@@ -8,6 +8,14 @@
 package minesweeper.model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 import org.junit.platform.commons.annotation.Testable;
@@ -35,5 +43,216 @@ public class BoardTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void testCellViewWritesThrough() throws MinesweeperException{
+        Board board = new Board(4, 6);
+        board.makeBoard();
+        Location location = board.getSafeCells().get(0);
+        board.getCellAtLocation(location).updateCellType(CellType.SAFE_CHECKED);
+
+        CellType expected = CellType.SAFE_CHECKED;
+        CellType actual = board.getCells().get(location.getRow()).get(location.getCol()).getType();
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testMineCellsArePacked(){
+        Board board = new Board(4, 6);
+        board.makeBoard();
+        int expected = 10;
+        int actual = 0;
+        for(Cell cell : board.getTotalCells()){
+            if(cell.getType() == CellType.BOMB_UNCHECKED){
+                actual++;
+            }
+        }
+
+        assertEquals(expected, actual);
+        assertEquals(expected, board.getMineCells().size());
+    }
+
+    @Test
+    public void testIsRealLocationNegative(){
+        Board board = new Board(5, 5);
+        board.makeBoard();
+        boolean expected = false;
+        boolean actual = board.isRealLocation(new Location(-1, 2));
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testAdjacentCellsAtEdges() throws MinesweeperException{
+        Board board = new Board(4, 6);
+        board.makeBoard();
+
+        assertEquals(3, board.getAdjacentCells(board.getCellAtLocation(new Location(0, 0))).size());
+        assertEquals(5, board.getAdjacentCells(board.getCellAtLocation(new Location(3, 2))).size());
+        assertEquals(5, board.getAdjacentCells(board.getCellAtLocation(new Location(2, 5))).size());
+        assertEquals(8, board.getAdjacentCells(board.getCellAtLocation(new Location(1, 1))).size());
+    }
+
+    @Test
+    public void testAdjacentCountsMatchNeighbours(){
+        Board board = new Board(7, 9);
+        board.makeBoard();
+        for(Cell cell : board.getTotalCells()){
+            int expected = 0;
+            for(Cell adjacent : board.getAdjacentCells(cell)){
+                if(adjacent.getType() == CellType.BOMB_UNCHECKED){
+                    expected++;
+                }
+            }
+            assertEquals(expected, board.getMinesAroundCell(cell));
+        }
+    }
+
+    @Test
+    public void testMoveMineUpdatesCounts() throws MinesweeperException{
+        Board board = new Board(5, 5);
+        board.makeBoard();
+        for(Cell mine : new ArrayList<>(board.getMineCells())){
+            board.getCellAtLocation(mine.getLocation()).setType(CellType.SAFE_UNCHECKED);
+        }
+        board.getCellAtLocation(new Location(0, 0)).setType(CellType.BOMB_UNCHECKED);
+
+        board.moveMine(new Location(0, 0), new Location(4, 4));
+
+        assertEquals(0, board.getMinesAroundCell(board.getCellAtLocation(new Location(1, 1))));
+        assertEquals(1, board.getMinesAroundCell(board.getCellAtLocation(new Location(3, 3))));
+        assertEquals(1, board.getMineCells().size());
+    }
+
+    @Test
+    public void testSameSeedSameBoard(){
+        Board board1 = new Board(30, 40, 0.2, new Random(42));
+        Board board2 = new Board(30, 40, 0.2, new Random(42));
+        board1.makeBoard();
+        board2.makeBoard();
+
+        assertEquals(240, board1.getMineCells().size());
+        for(int i = 0; i < board1.getTotalCells().size(); i++){
+            assertEquals(board1.getTotalCells().get(i).getType(), board2.getTotalCells().get(i).getType());
+        }
+    }
+
+    @Test
+    public void testExplicitMineCount(){
+        Board board = new Board(10, 10, 99, new Random(7));
+        board.makeBoard();
+        int expected = 99;
+        int actual = board.getMineCells().size();
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testOpeningsFollowMovedMines() throws MinesweeperException{
+        Board board = new Board(1, 7, 1, new Random(3));
+        board.makeBoard();
+        Location mine = board.getMineCells().get(0).getLocation();
+        if(!mine.equals(new Location(0, 3))){
+            board.moveMine(mine, new Location(0, 3));
+        }
+        assertEquals(3, board.revealFrom(board.indexOf(0, 0)).length);
+
+        board.moveMine(new Location(0, 3), new Location(0, 6));
+        //(0, 0) to (0, 2) are already showing, so the opening adds (0, 3) to (0, 5).
+        assertEquals(3, board.revealFrom(board.indexOf(0, 4)).length);
+        assertEquals(CellType.BOMB_UNCHECKED, board.getCellAtLocation(new Location(0, 6)).getType());
+    }
+
+    @Test
+    public void testCoveredSafeCount() throws MinesweeperException{
+        Board board = new Board(6, 6, 5, new Random(2));
+        board.makeBoard();
+        assertEquals(31, board.getCoveredSafeCount());
+
+        int safe = 0;
+        while(board.isMine(safe)){
+            safe++;
+        }
+        int[] revealed = board.revealFrom(safe);
+        assertEquals(31 - revealed.length, board.getCoveredSafeCount());
+
+        //Uncovering a mine doesn't change it, and the count survives a snapshot.
+        board.getMineCells().get(0).setType(CellType.BOMB_CHECKED);
+        Board copy = new Board(board);
+        assertEquals(31 - revealed.length, copy.getCoveredSafeCount());
+    }
+
+    @Test
+    public void testSafeCellsLeaveOutMines(){
+        Board board = new Board(6, 6, 5, new Random(3));
+        board.makeBoard();
+
+        List<Location> safe = board.getSafeCells();
+
+        assertEquals(31, safe.size());
+        for(Location location : safe){
+            assertFalse(board.isMine(board.indexOf(location.getRow(), location.getCol())));
+        }
+    }
+
+    @Test
+    public void testCoveredSetsFollowTheBoard() throws MinesweeperException{
+        Board board = new Board(20, 20, 60, new Random(4));
+        board.makeBoard();
+        List<Location> before = board.getCoveredSafeCells();
+        IntList view = board.getCoveredSafeIndices();
+        assertEquals(340, before.size());
+        assertEquals(340, view.size());
+        assertEquals(400, board.getCoveredCells().size());
 
+        int safe = board.randomCoveredSafeCell(new Random(5));
+        int[] revealed = board.revealFrom(safe);
+        List<Location> after = board.getCoveredSafeCells();
+        List<Location> covered = board.getCoveredCells();
+
+        //The list handed out earlier is a copy, the view has gone stale.
+        assertEquals(340, before.size());
+        assertThrows(ConcurrentModificationException.class, view::size);
+        assertEquals(340 - revealed.length, after.size());
+        assertEquals(400 - revealed.length, covered.size());
+        for(Location location : after){
+            int index = board.indexOf(location.getRow(), location.getCol());
+            assertFalse(board.isMine(index) || board.isRevealed(index));
+        }
+        //A copy builds its own sets, so playing on it leaves the original's alone.
+        Board copy = new Board(board);
+        int any = copy.randomCoveredCell(new Random(6));
+        assertFalse(copy.isRevealed(any));
+        copy.revealFrom(copy.randomCoveredSafeCell(new Random(7)));
+        assertTrue(copy.getCoveredSafeCount() < after.size());
+        assertEquals(copy.getCoveredSafeCount(), copy.getCoveredSafeIndices().size());
+        assertEquals(after.size(), board.getCoveredSafeIndices().size());
+
+        for(int index : revealed){
+            board.cover(index);
+        }
+        assertEquals(340, board.getCoveredSafeCells().size());
+    }
+
+    @Test
+    public void testIndexListsMatchCells() throws MinesweeperException{
+        Board board = new Board(10, 10, 12, new Random(6));
+        board.makeBoard();
+        IntList mines = board.getMineIndices();
+
+        assertEquals(12, mines.size());
+        for(int i = 0; i < mines.size(); i++){
+            assertEquals(board.getMineCells().get(i).getLocation(), board.locationOf(mines.get(i)));
+        }
+        assertEquals(3, board.getAdjacentIndices(board.indexOf(0, 9)).size());
+        assertEquals(8, board.getAdjacentIndices(board.indexOf(5, 5)).size());
+
+        //Moving a mine doesn't reach the list handed out before.
+        int from = mines.get(0);
+        Location safe = board.getSafeCells().get(0);
+        int to = board.indexOf(safe.getRow(), safe.getCol());
+        board.moveMine(board.locationOf(from), board.locationOf(to));
+        assertEquals(from, mines.get(0));
+        assertTrue(board.getMineIndices().contains(to));
+    }
 }
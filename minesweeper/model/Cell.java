@@ -10,33 +10,59 @@ package minesweeper.model;
 /**
  * Class to represent a Cell on the Minesweeper gameboard.
  * Can be a uncovered mine, covered mine, uncovered safe spot, and covered safe spot.
+ * A Cell is either standalone, holding its own type, or a view onto one index of a
+ * Board's packed storage, in which case reads and writes go straight to the board.
  */
 public class Cell {
     private Location location;
     private CellType type;
+    private final Board board;
+    private final int index;
 
     public Cell(Location location, CellType type) {
         this.location = location;
         this.type = type;
+        this.board = null;
+        this.index = -1;
+    }
+
+    /**
+     * Creates a view onto the cell stored at the given index of a board.
+     * @param board the board which owns the storage.
+     * @param index index of the cell in the packed storage.
+     */
+    Cell(Board board, int index) {
+        this.board = board;
+        this.index = index;
     }
 
     //------------- Getters and Setters --------------//
 
     public Location getLocation() {
+        if(this.location == null){
+            this.location = board.locationOf(index);
+        }
         return this.location;
     }
 
     public CellType getType() {
+        if(board != null){
+            return board.getType(index);
+        }
         return this.type;
     }
 
     public void setType(CellType type) {
-        this.type = type;
+        if(board != null){
+            board.setType(index, type);
+        } else {
+            this.type = type;
+        }
     }
 
     //Setter
     public void updateCellType(CellType newType){
-        this.type = newType;
+        setType(newType);
     }
 
     //------------- Special Methods -----------------//
@@ -47,52 +73,55 @@ public class Cell {
      * @return true if the cell is adjacent, false if not.
      */
     public boolean isAdjacent(Cell cell) {
+        //Board cells only make their location when asked, so don't read the field.
+        Location here = getLocation();
+
         //Below middle square
         
-        if (cell.getLocation().getRow() == location.getRow() - 1 &&
-            cell.getLocation().getCol() == location.getCol()) {
+        if (cell.getLocation().getRow() == here.getRow() - 1 &&
+            cell.getLocation().getCol() == here.getCol()) {
             return true;
         }
 
         //Top middle square
-        else if(cell.getLocation().getRow() == location.getRow() + 1 &&
-                cell.getLocation().getCol() == location.getCol()) {
+        else if(cell.getLocation().getRow() == here.getRow() + 1 &&
+                cell.getLocation().getCol() == here.getCol()) {
             return true;
         }
 
         //Right middle square
-        else if(cell.getLocation().getRow() == location.getRow() &&
-                cell.getLocation().getCol() == location.getCol() + 1) {
+        else if(cell.getLocation().getRow() == here.getRow() &&
+                cell.getLocation().getCol() == here.getCol() + 1) {
             return true;
         }
 
         //Left middle square
-        else if(cell.getLocation().getRow() == location.getRow() &&
-                cell.getLocation().getCol() == location.getCol() - 1) {
+        else if(cell.getLocation().getRow() == here.getRow() &&
+                cell.getLocation().getCol() == here.getCol() - 1) {
             return true;
         }
 
         //Top left square
-        else if(cell.getLocation().getRow() == location.getRow() + 1 && 
-                cell.getLocation().getCol() == location.getCol() - 1) {
+        else if(cell.getLocation().getRow() == here.getRow() + 1 && 
+                cell.getLocation().getCol() == here.getCol() - 1) {
             return true;
         }
 
         //Top right square
-        else if(cell.getLocation().getRow() == location.getRow() + 1 &&
-                cell.getLocation().getCol() == location.getCol() + 1) {
+        else if(cell.getLocation().getRow() == here.getRow() + 1 &&
+                cell.getLocation().getCol() == here.getCol() + 1) {
             return true;
         }
 
         //Bottom left square
-        else if(cell.getLocation().getRow() == location.getRow() - 1 &&
-                cell.getLocation().getCol() == location.getCol() - 1) {
+        else if(cell.getLocation().getRow() == here.getRow() - 1 &&
+                cell.getLocation().getCol() == here.getCol() - 1) {
             return true;
         }
 
         //Bottom right square
-        else if(cell.getLocation().getRow() == location.getRow() - 1 &&
-                cell.getLocation().getCol() == location.getCol() + 1) {
+        else if(cell.getLocation().getRow() == here.getRow() - 1 &&
+                cell.getLocation().getCol() == here.getCol() + 1) {
             return true;
         }
 
@@ -110,6 +139,23 @@ public class Cell {
         
     // }
 
+    @Override
+    public boolean equals(Object o){
+        if(o instanceof Cell){
+            Cell other = (Cell)o;
+            if(board != null){
+                return other.board == board && other.index == index;
+            }
+            return other == this;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode(){
+        return board != null ? index : System.identityHashCode(this);
+    }
+
     @Override 
     public String toString(){
         if(this.getType() == CellType.SAFE_UNCHECKED){
@@ -40,4 +40,20 @@ public class CellTest {
         assertEquals(expected3, actual3);
         assertEquals(expected4, actual4);
     }
+
+    @Test
+    public void isAdjacentOnBoardCells() throws MinesweeperException {
+        // setup: cells made by the board, which haven't made their locations yet
+        Board board = new Board(4, 4);
+        board.makeBoard();
+        Cell corner = board.getCellAtLocation(new Location(0, 0));
+        Cell diagonal = board.getCellAtLocation(new Location(1, 1));
+        Cell far = board.getCellAtLocation(new Location(2, 0));
+
+        // analyze
+        assertEquals(true, corner.isAdjacent(diagonal));
+        assertEquals(true, diagonal.isAdjacent(corner));
+        assertEquals(false, corner.isAdjacent(far));
+        assertEquals(false, board.getCellAtLocation(new Location(3, 3)).isAdjacent(corner));
+    }
 }
@@ -0,0 +1,392 @@
+/**
+ * Class to represent a DeductionEngine which works out safe cells and mines like a player would.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class to represent a DeductionEngine which works out safe cells and mines like a player would.
+ * Only reads the game's PlayerView, so it never sees where the mines are.
+ * Every uncovered number is a constraint on its covered neighbours. Two rules are used:
+ * a number whose remaining mines are zero (or equal to its unknown neighbours) makes all of
+ * them safe (or mines), and two overlapping numbers bound the mines in their shared cells,
+ * which can settle the cells only one of them touches (the subset rule is the special case).
+ * The engine follows the game's move journal, so after each selection it only re-checks the
+ * numbers around newly uncovered cells and around cells it has just settled.
+ */
+public class DeductionEngine {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte SAFE = 1;
+    private static final byte MINE = 2;
+    private static final byte UNCOVERED = 3;
+
+    //The game to follow, or null if the engine was given a single view.
+    private final Minesweeper game;
+    private PlayerView view;
+    private final int[] scratch = new int[8];
+    private final int[] neighbourScratch = new int[8];
+
+    private byte[] knowledge;
+    private int journalCursor;
+    private int journalGeneration;
+    private boolean built;
+    //Size of the unknown set written by the last call to constraint().
+    private int lastSize;
+
+    //Uncovered numbers waiting to be re-checked.
+    private int[] queue = new int[64];
+    private int queueSize;
+    private boolean[] queued;
+
+    //Cells settled so far, in the order they were settled. Safe cells are dropped once uncovered.
+    private int[] safeCells = new int[16];
+    private int safeCount;
+    private int[] mineCells = new int[16];
+    private int mineCount;
+
+    /**
+     * Constructor which attaches the engine to a game.
+     * @param game the game to follow.
+     */
+    public DeductionEngine(Minesweeper game){
+        this.game = game;
+        this.view = game.getPlayerView();
+    }
+
+    /**
+     * Constructor which works on one fixed view, for example on another thread while the
+     * game goes on.
+     * @param view what the player can see.
+     */
+    public DeductionEngine(PlayerView view){
+        this.game = null;
+        this.view = view;
+    }
+
+    //------------- Queries --------------//
+
+    /**
+     * Gets every covered cell which is certainly safe.
+     * @return the safe locations.
+     */
+    public List<Location> getSafeCells(){
+        update();
+        List<Location> locations = new ArrayList<>(safeCount);
+        for(int i = 0; i < safeCount; i++){
+            locations.add(view.locationOf(safeCells[i]));
+        }
+        return locations;
+    }
+
+    /**
+     * Gets one covered cell which is certainly safe, without building a list.
+     * @return the board index of a safe cell, or -1 if none is known.
+     */
+    public int getSafeCellIndex(){
+        update();
+        return safeCount == 0 ? -1 : safeCells[0];
+    }
+
+    /**
+     * Gets every covered cell which is certainly a mine.
+     * @return the mine locations, in the order they were worked out.
+     */
+    public List<Location> getMineCells(){
+        update();
+        List<Location> locations = new ArrayList<>(mineCount);
+        for(int i = 0; i < mineCount; i++){
+            locations.add(view.locationOf(mineCells[i]));
+        }
+        return locations;
+    }
+
+    /**
+     * @param location the location to check.
+     * @return true if the location is covered and certainly safe.
+     */
+    public boolean isSafe(Location location){
+        update();
+        return view.contains(location) && knowledge[view.indexOf(location.getRow(), location.getCol())] == SAFE;
+    }
+
+    /**
+     * @param location the location to check.
+     * @return true if the location is covered and certainly a mine.
+     */
+    public boolean isMine(Location location){
+        update();
+        return view.contains(location) && knowledge[view.indexOf(location.getRow(), location.getCol())] == MINE;
+    }
+
+    //------------- Bookkeeping --------------//
+
+    /**
+     * Catches up with the game. New entries in the move journal are folded in one by one;
+     * if selections were undone, or the engine has never run, it starts over from what the
+     * board currently shows.
+     */
+    public void update(){
+        if(game != null){
+            view = game.getLiveView();
+        }
+        if(!built || view.getJournalGeneration() != journalGeneration || view.getJournalSize() < journalCursor){
+            rebuild();
+        }
+
+        int size = view.getJournalSize();
+        while(journalCursor < size){
+            uncovered(view.getJournalEntry(journalCursor++));
+        }
+        propagate();
+    }
+
+    /**
+     * Forgets everything and reads every uncovered cell off the board. The arrays are kept
+     * and cleared, since a search in place rebuilds after every undo.
+     */
+    private void rebuild(){
+        int total = view.getTotalCells();
+        if(knowledge == null || knowledge.length != total){
+            knowledge = new byte[total];
+            queued = new boolean[total];
+        } else {
+            Arrays.fill(knowledge, UNKNOWN);
+            Arrays.fill(queued, false);
+        }
+        queueSize = 0;
+        safeCount = 0;
+        mineCount = 0;
+        for(int i = 0; i < total; i++){
+            if(!view.isCovered(i)){
+                uncovered(i);
+            }
+        }
+        journalCursor = view.getJournalSize();
+        journalGeneration = view.getJournalGeneration();
+        built = true;
+    }
+
+    /**
+     * Records that a cell is showing its number, and queues it and the numbers next to it.
+     * @param index index of the cell.
+     */
+    private void uncovered(int index){
+        if(knowledge[index] == UNCOVERED){
+            return;
+        }
+        if(knowledge[index] == SAFE){
+            removeSafe(index);
+        }
+        knowledge[index] = UNCOVERED;
+        enqueue(index);
+        enqueueNeighbours(index);
+    }
+
+    private void enqueue(int index){
+        if(!queued[index]){
+            queued[index] = true;
+            if(queueSize == queue.length){
+                queue = Arrays.copyOf(queue, queue.length * 2);
+            }
+            queue[queueSize++] = index;
+        }
+    }
+
+    private void enqueueNeighbours(int index){
+        int[] adjacent = neighbourScratch;
+        int count = view.neighbors(index, adjacent);
+        for(int i = 0; i < count; i++){
+            if(knowledge[adjacent[i]] == UNCOVERED){
+                enqueue(adjacent[i]);
+            }
+        }
+    }
+
+    private void removeSafe(int index){
+        for(int i = 0; i < safeCount; i++){
+            if(safeCells[i] == index){
+                safeCells[i] = safeCells[--safeCount];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Settles a covered cell as safe or as a mine and queues the numbers around it.
+     * @param index index of the cell.
+     * @param value SAFE or MINE.
+     */
+    private void settle(int index, byte value){
+        if(knowledge[index] != UNKNOWN){
+            return;
+        }
+        knowledge[index] = value;
+        if(value == SAFE){
+            if(safeCount == safeCells.length){
+                safeCells = Arrays.copyOf(safeCells, safeCells.length * 2);
+            }
+            safeCells[safeCount++] = index;
+        } else {
+            if(mineCount == mineCells.length){
+                mineCells = Arrays.copyOf(mineCells, mineCells.length * 2);
+            }
+            mineCells[mineCount++] = index;
+        }
+        enqueueNeighbours(index);
+    }
+
+    //------------- Rules --------------//
+
+    /**
+     * Re-checks queued numbers until nothing new can be settled.
+     */
+    private void propagate(){
+        int[] unknown = new int[8];
+        while(queueSize > 0){
+            int index = queue[--queueSize];
+            queued[index] = false;
+
+            int remaining = constraint(index, unknown);
+            int size = lastSize;
+            if(size == 0){
+                continue;
+            }
+            if(remaining == 0 || remaining == size){
+                byte value = remaining == 0 ? SAFE : MINE;
+                for(int i = 0; i < size; i++){
+                    settle(unknown[i], value);
+                }
+                continue;
+            }
+            compareWithOverlapping(index, Arrays.copyOf(unknown, size), remaining);
+        }
+    }
+
+    /**
+     * Reads the constraint of an uncovered number: which neighbours are still unknown
+     * and how many of them must be mines.
+     * @param index index of an uncovered cell.
+     * @param unknown filled with the unknown neighbours, lastSize says how many.
+     * @return how many of the unknown neighbours are mines.
+     */
+    private int constraint(int index, int[] unknown){
+        int count = view.neighbors(index, scratch);
+        int size = 0;
+        int knownMines = 0;
+        for(int i = 0; i < count; i++){
+            byte k = knowledge[scratch[i]];
+            if(k == MINE){
+                knownMines++;
+            } else if(k == UNKNOWN){
+                unknown[size++] = scratch[i];
+            }
+        }
+        lastSize = size;
+        return view.getNumber(index) - knownMines;
+    }
+
+    /**
+     * Applies the pair rule between one number and every uncovered number within two
+     * cells of it, since only those can share covered neighbours with it.
+     * @param index index of the first number.
+     * @param unknownA its unknown neighbours.
+     * @param remainingA how many of them are mines.
+     */
+    private void compareWithOverlapping(int index, int[] unknownA, int remainingA){
+        int rows = view.getRows();
+        int cols = view.getCols();
+        int r = index / cols;
+        int c = index % cols;
+        int[] unknownB = new int[8];
+
+        for(int nr = Math.max(0, r - 2); nr <= Math.min(rows - 1, r + 2); nr++){
+            for(int nc = Math.max(0, c - 2); nc <= Math.min(cols - 1, c + 2); nc++){
+                int other = nr * cols + nc;
+                if(other == index || knowledge[other] != UNCOVERED){
+                    continue;
+                }
+                int remainingB = constraint(other, unknownB);
+                int sizeB = lastSize;
+                if(sizeB == 0){
+                    continue;
+                }
+                if(pairRule(unknownA, remainingA, unknownB, sizeB, remainingB)){
+                    //Something was settled, the queue will come back to this number.
+                    enqueue(index);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * The pair rule. With A only, shared, and B only cells, the shared cells hold between
+     * max(0, mA - |A only|, mB - |B only|) and min(|shared|, mA, mB) mines, which bounds the
+     * mines in A only and B only. A bound that forces all or none settles those cells.
+     * @return true if any cell was settled.
+     */
+    private boolean pairRule(int[] unknownA, int remainingA, int[] unknownB, int sizeB, int remainingB){
+        int shared = 0;
+        for(int a : unknownA){
+            for(int i = 0; i < sizeB; i++){
+                if(unknownB[i] == a){
+                    shared++;
+                    break;
+                }
+            }
+        }
+        if(shared == 0){
+            return false;
+        }
+        int onlyA = unknownA.length - shared;
+        int onlyB = sizeB - shared;
+        int low = Math.max(0, Math.max(remainingA - onlyA, remainingB - onlyB));
+        int high = Math.min(shared, Math.min(remainingA, remainingB));
+
+        boolean settled = false;
+        if(onlyA > 0){
+            settled |= settleOutside(unknownA, unknownA.length, unknownB, sizeB, remainingA - high, remainingA - low, onlyA);
+        }
+        if(onlyB > 0){
+            settled |= settleOutside(unknownB, sizeB, unknownA, unknownA.length, remainingB - high, remainingB - low, onlyB);
+        }
+        return settled;
+    }
+
+    /**
+     * Settles the cells of one constraint which the other doesn't touch, if their mine
+     * count is forced to zero or to all of them.
+     * @return true if any cell was settled.
+     */
+    private boolean settleOutside(int[] cells, int size, int[] other, int otherSize, int minMines, int maxMines, int outside){
+        byte value;
+        if(maxMines == 0){
+            value = SAFE;
+        } else if(minMines == outside){
+            value = MINE;
+        } else {
+            return false;
+        }
+        for(int i = 0; i < size; i++){
+            boolean inOther = false;
+            for(int j = 0; j < otherSize; j++){
+                if(other[j] == cells[i]){
+                    inOther = true;
+                    break;
+                }
+            }
+            if(!inOther){
+                settle(cells[i], value);
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Testing Class to represent a DeductionEngine.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+@Testable
+public class DeductionEngineTest {
+
+    //Picks the first cell with no adjacent mines, so the game opens up.
+    private static Location openZero(Board board, Minesweeper game) throws MinesweeperException {
+        for(int i = 0; i < board.getRows() * board.getCols(); i++){
+            if(!board.isMine(i) && board.getAdjacentMines(i) == 0){
+                Location location = board.locationOf(i);
+                game.makeSelection(location);
+                return location;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testNothingKnownBeforeFirstMove(){
+        Board board = new Board(9, 9, 10, new SplittableRandom(1));
+        Minesweeper game = new Minesweeper(9, 9, board);
+        board.makeBoard();
+        DeductionEngine engine = new DeductionEngine(game);
+
+        assertEquals(0, engine.getSafeCells().size());
+        assertEquals(0, engine.getMineCells().size());
+    }
+
+    @Test
+    public void testSingleNumberRule() throws MinesweeperException{
+        //One mine in the corner, everything else opens around it.
+        Board board = new Board(3, 3, 0, new SplittableRandom(1));
+        Minesweeper game = new Minesweeper(3, 3, board);
+        board.makeBoard();
+        board.setType(board.indexOf(0, 0), CellType.BOMB_UNCHECKED);
+        game.makeSelection(new Location(2, 2));
+
+        DeductionEngine engine = new DeductionEngine(game);
+
+        assertTrue(engine.isMine(new Location(0, 0)));
+        assertEquals(0, engine.getSafeCells().size());
+    }
+
+    @Test
+    public void testPairRule() throws MinesweeperException{
+        //Row 0 is covered, row 1 reads 1 1 1 and row 2 is empty. The outer 1s each see
+        //two covered cells and the middle one sees all three, so the mine is above the middle.
+        Board board = new Board(3, 3, 0, new SplittableRandom(1));
+        Minesweeper game = new Minesweeper(3, 3, board);
+        board.makeBoard();
+        board.setType(board.indexOf(0, 1), CellType.BOMB_UNCHECKED);
+        game.makeSelection(new Location(2, 0));
+
+        DeductionEngine engine = new DeductionEngine(game);
+
+        assertTrue(engine.isMine(new Location(0, 1)));
+        assertTrue(engine.isSafe(new Location(0, 0)));
+        assertTrue(engine.isSafe(new Location(0, 2)));
+    }
+
+    @Test
+    public void testDeductionsAreNeverWrong() throws MinesweeperException{
+        for(int seed = 0; seed < 50; seed++){
+            Board board = new Board(16, 30, 99, new SplittableRandom(seed));
+            Minesweeper game = new Minesweeper(16, 30, board);
+            board.makeBoard();
+            DeductionEngine engine = new DeductionEngine(game);
+            openZero(board, game);
+
+            List<Location> safe = engine.getSafeCells();
+            while(!safe.isEmpty()){
+                for(Location mine : engine.getMineCells()){
+                    assertTrue(board.isMine(board.indexOf(mine.getRow(), mine.getCol())));
+                }
+                for(Location location : safe){
+                    assertFalse(board.isMine(board.indexOf(location.getRow(), location.getCol())));
+                    game.makeSelection(location);
+                }
+                safe = engine.getSafeCells();
+            }
+        }
+    }
+
+    @Test
+    public void testRebuildsAfterUndo() throws MinesweeperException{
+        Board board = new Board(16, 16, 40, new SplittableRandom(7));
+        Minesweeper game = new Minesweeper(16, 16, board);
+        board.makeBoard();
+        DeductionEngine engine = new DeductionEngine(game);
+        openZero(board, game);
+        List<Location> before = engine.getSafeCells();
+
+        if(!before.isEmpty()){
+            game.makeSelection(before.get(0));
+            engine.getSafeCells();
+            game.undoSelection();
+        }
+
+        assertEquals(new DeductionEngine(game).getSafeCells().size(), engine.getSafeCells().size());
+        assertEquals(new DeductionEngine(game).getMineCells().size(), engine.getMineCells().size());
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Class to represent a FrontierConfiguration, a mine layout for the frontier being filled in.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import backtracker.Configuration;
+
+/**
+ * Class to represent a FrontierConfiguration: the frontier of a position (the covered cells
+ * next to an uncovered number) as a puzzle for the Backtracker. Cells are given a value, mine
+ * or safe, one at a time in the order they were first seen scanning the board, and a
+ * configuration is valid while every number touching the cell just set can still be met. A goal
+ * is a layout of the whole frontier which agrees with every number (the board's mine count is
+ * not checked). Cells can be fixed up front with with(), so asking whether any layout has a
+ * given cell a mine tells whether that cell is forced safe, and withMines() asks for layouts
+ * with a given number of mines.
+ *
+ * Unlike MinesweeperSolver, which only has a choice when it has to guess, every unfixed cell
+ * here has two successors, so the tree branches all the way down. That makes it the workload
+ * for the parallel backtracker. Reads only what a PlayerView shows.
+ */
+public class FrontierConfiguration implements Configuration {
+
+    //Board index of each frontier cell, and the position of each board index in frontier.
+    private final int[] frontier;
+    private final Map<Integer, Integer> positionOf;
+    //The numbers each cell touches, the cells each number touches, and each number's value.
+    private final int[][] cellEquations;
+    private final int[][] equationCells;
+    private final int[] target;
+    //-1 for a cell not given a value yet, else 0 or 1.
+    private final int[] value;
+    private final int depth;
+    //How many mines the whole frontier must hold, -1 for any number, and how many the cells
+    //before depth hold.
+    private final int mineCount;
+    private final int placed;
+
+    /**
+     * Constructor for the root, with no frontier cell given a value.
+     * @param view what the player can see.
+     */
+    public FrontierConfiguration(PlayerView view){
+        int[] adjacent = new int[8];
+        positionOf = new HashMap<>();
+        List<Integer> cells = new ArrayList<>();
+        List<int[]> equations = new ArrayList<>();
+        List<Integer> targets = new ArrayList<>();
+        for(int i = 0; i < view.getTotalCells(); i++){
+            if(view.isCovered(i)){
+                continue;
+            }
+            int count = view.neighbors(i, adjacent);
+            int[] touched = new int[count];
+            int size = 0;
+            for(int n = 0; n < count; n++){
+                if(view.isCovered(adjacent[n])){
+                    if(!positionOf.containsKey(adjacent[n])){
+                        positionOf.put(adjacent[n], cells.size());
+                        cells.add(adjacent[n]);
+                    }
+                    touched[size++] = positionOf.get(adjacent[n]);
+                }
+            }
+            if(size > 0){
+                equations.add(Arrays.copyOf(touched, size));
+                targets.add(view.getNumber(i));
+            }
+        }
+
+        frontier = cells.stream().mapToInt(Integer::intValue).toArray();
+        equationCells = equations.toArray(new int[0][]);
+        target = targets.stream().mapToInt(Integer::intValue).toArray();
+        List<List<Integer>> byCell = new ArrayList<>();
+        for(int c = 0; c < frontier.length; c++){
+            byCell.add(new ArrayList<>());
+        }
+        for(int e = 0; e < equationCells.length; e++){
+            for(int cell : equationCells[e]){
+                byCell.get(cell).add(e);
+            }
+        }
+        cellEquations = new int[frontier.length][];
+        for(int c = 0; c < frontier.length; c++){
+            cellEquations[c] = byCell.get(c).stream().mapToInt(Integer::intValue).toArray();
+        }
+        value = new int[frontier.length];
+        Arrays.fill(value, -1);
+        depth = 0;
+        mineCount = -1;
+        placed = 0;
+    }
+
+    /**
+     * Constructor for a child, sharing everything but the values with its parent.
+     */
+    private FrontierConfiguration(FrontierConfiguration parent, int[] value, int depth, int mineCount){
+        this.frontier = parent.frontier;
+        this.positionOf = parent.positionOf;
+        this.cellEquations = parent.cellEquations;
+        this.equationCells = parent.equationCells;
+        this.target = parent.target;
+        this.value = value;
+        this.depth = depth;
+        this.mineCount = mineCount;
+        this.placed = depth > parent.depth ? parent.placed + value[depth - 1] : parent.placed;
+    }
+
+    /**
+     * @return the board indices of the frontier cells, in the order they are given values.
+     */
+    public IntList getFrontier(){
+        return new IntList(frontier, frontier.length);
+    }
+
+    /**
+     * Makes a copy of this configuration with one cell's value fixed before the search gets to it.
+     * @param index board index of a frontier cell.
+     * @param mine whether the cell is to be a mine.
+     * @return the copy.
+     * @throws IllegalArgumentException if the cell isn't on the frontier, or already has a value.
+     */
+    public FrontierConfiguration with(int index, boolean mine){
+        Integer position = positionOf.get(index);
+        if(position == null || value[position] != -1){
+            throw new IllegalArgumentException("Cell " + index + " is not an open frontier cell");
+        }
+        int[] next = value.clone();
+        next[position] = mine ? 1 : 0;
+        return new FrontierConfiguration(this, next, depth, mineCount);
+    }
+
+    /**
+     * Makes a copy of this configuration whose goals hold exactly the given number of mines.
+     * Asking in turn for every count tells which counts the numbers allow, and a count they
+     * don't allow can only be ruled out by searching every layout.
+     * @param count how many mines the frontier is to hold.
+     * @return the copy.
+     */
+    public FrontierConfiguration withMines(int count){
+        return new FrontierConfiguration(this, value, depth, count);
+    }
+
+    /**
+     * @param index board index of a cell.
+     * @return whether this layout has a mine on the cell, false if it has no value yet or isn't
+     * on the frontier.
+     */
+    public boolean isMine(int index){
+        Integer position = positionOf.get(index);
+        return position != null && value[position] == 1;
+    }
+
+    @Override
+    public Collection<Configuration> getSuccessors() {
+        List<Configuration> successors = new ArrayList<>(2);
+        if(value[depth] != -1){
+            //This cell was fixed up front.
+            successors.add(new FrontierConfiguration(this, value, depth + 1, mineCount));
+            return successors;
+        }
+        for(int v = 0; v <= 1; v++){
+            int[] next = value.clone();
+            next[depth] = v;
+            successors.add(new FrontierConfiguration(this, next, depth + 1, mineCount));
+        }
+        return successors;
+    }
+
+    @Override
+    public boolean isValid() {
+        if(depth == 0){
+            return true;
+        }
+        if(mineCount != -1 && (placed > mineCount || placed + value.length - depth < mineCount)){
+            return false;
+        }
+        for(int e : cellEquations[depth - 1]){
+            int mines = 0;
+            int open = 0;
+            for(int cell : equationCells[e]){
+                if(value[cell] == -1){
+                    open++;
+                } else {
+                    mines += value[cell];
+                }
+            }
+            if(mines > target[e] || mines + open < target[e]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isGoal() {
+        return depth == value.length;
+    }
+}
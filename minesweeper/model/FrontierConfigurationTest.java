@@ -0,0 +1,72 @@
+/**
+ * Testing Class to represent a FrontierConfiguration.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import backtracker.Backtracker;
+
+@Testable
+public class FrontierConfigurationTest {
+
+    /**
+     * A 3 by 3 board with its mine above the middle, opened from the bottom left, so the top
+     * row is the frontier and the middle row shows 1 1 1.
+     */
+    private static Minesweeper game() throws MinesweeperException{
+        Board board = new Board(3, 3, 0, new SplittableRandom(1));
+        Minesweeper game = new Minesweeper(3, 3, 1, board);
+        board.makeBoard();
+        board.setType(board.indexOf(0, 1), CellType.BOMB_UNCHECKED);
+        game.makeSelection(new Location(2, 0));
+        return game;
+    }
+
+    @Test
+    public void testFindsTheOnlyLayout() throws MinesweeperException{
+        PlayerView view = game().getPlayerView();
+        FrontierConfiguration root = new FrontierConfiguration(view);
+        assertEquals(3, root.getFrontier().size());
+
+        FrontierConfiguration layout = (FrontierConfiguration) new Backtracker(false).solve(root);
+        assertTrue(layout.isMine(view.indexOf(0, 1)));
+        assertEquals(false, layout.isMine(view.indexOf(0, 0)));
+        assertEquals(false, layout.isMine(view.indexOf(0, 2)));
+    }
+
+    @Test
+    public void testFixedCellsAndMineCount() throws MinesweeperException{
+        PlayerView view = game().getPlayerView();
+        FrontierConfiguration root = new FrontierConfiguration(view);
+        Backtracker backtracker = new Backtracker(false);
+
+        assertEquals(null, backtracker.solve(root.with(view.indexOf(0, 0), true)));
+        assertEquals(null, backtracker.solve(root.with(view.indexOf(0, 1), false)));
+        assertTrue(backtracker.solve(root.with(view.indexOf(0, 2), false)) != null);
+        assertEquals(null, backtracker.solve(root.withMines(0)));
+        assertTrue(backtracker.solve(root.withMines(1)) != null);
+        assertEquals(null, backtracker.solve(root.withMines(2)));
+    }
+
+    @Test
+    public void testOnlyFrontierCellsCanBeFixed() throws MinesweeperException{
+        PlayerView view = game().getPlayerView();
+        FrontierConfiguration root = new FrontierConfiguration(view);
+
+        assertThrows(IllegalArgumentException.class, () -> root.with(view.indexOf(2, 2), true));
+        FrontierConfiguration fixed = root.with(view.indexOf(0, 0), false);
+        assertThrows(IllegalArgumentException.class, () -> fixed.with(view.indexOf(0, 0), true));
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Class to represent an IntList, a list of cell indices without boxing.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+
+/**
+ * Class to represent an IntList: a growable list of ints backed by a plain array, for passing
+ * cells around as board indices (row * cols + col, see Board.indexOf()) instead of Location
+ * objects. Lists handed out by Board and Minesweeper are read-only and share the board's own
+ * arrays, so they cost nothing to make; changing one throws UnsupportedOperationException.
+ * The covered cell lists are views of a live IntSet and throw ConcurrentModificationException
+ * if read after the board changes, see IntSet.view().
+ */
+public class IntList {
+
+    private int[] values;
+    private int size;
+    private final boolean readOnly;
+    //The set this is a view of, and its modCount when the view was made.
+    private final IntSet source;
+    private final int expectedModCount;
+
+    /**
+     * Constructor for an empty list.
+     */
+    public IntList(){
+        this(16);
+    }
+
+    /**
+     * Constructor for an empty list with room for some values before it has to grow.
+     * @param capacity how many values to make room for.
+     */
+    public IntList(int capacity){
+        this.values = new int[Math.max(capacity, 1)];
+        this.readOnly = false;
+        this.source = null;
+        this.expectedModCount = 0;
+    }
+
+    /**
+     * Constructor for a read-only list of the first size values of an array. The array is
+     * not copied, so whoever owns it must never write below size again.
+     */
+    IntList(int[] values, int size){
+        this(null, values, size);
+    }
+
+    /**
+     * Constructor for a read-only view of a set's members, good until the set changes.
+     */
+    IntList(IntSet source, int[] values, int size){
+        this.values = values;
+        this.size = size;
+        this.readOnly = true;
+        this.source = source;
+        this.expectedModCount = source == null ? 0 : source.getModCount();
+    }
+
+    /**
+     * Throws if this is a view of a set which has changed since, as the values below size
+     * may have been moved around.
+     */
+    private void checkSource(){
+        if(source != null && source.getModCount() != expectedModCount){
+            throw new ConcurrentModificationException("The set changed after this view was made");
+        }
+    }
+
+    public int size(){
+        checkSource();
+        return size;
+    }
+
+    public boolean isEmpty(){
+        return size() == 0;
+    }
+
+    /**
+     * @param i position in the list.
+     * @return the value at that position.
+     */
+    public int get(int i){
+        checkSource();
+        if(i < 0 || i >= size){
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+        return values[i];
+    }
+
+    /**
+     * Adds a value to the end of the list.
+     * @param value the value to add.
+     */
+    public void add(int value){
+        if(readOnly){
+            throw new UnsupportedOperationException("This list is read-only");
+        }
+        if(size == values.length){
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[size++] = value;
+    }
+
+    public void clear(){
+        if(readOnly){
+            throw new UnsupportedOperationException("This list is read-only");
+        }
+        size = 0;
+    }
+
+    /**
+     * @param value the value to look for.
+     * @return true if the list holds the value, found by walking the list.
+     */
+    public boolean contains(int value){
+        checkSource();
+        for(int i = 0; i < size; i++){
+            if(values[i] == value){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a copy of the values.
+     */
+    public int[] toArray(){
+        checkSource();
+        return Arrays.copyOf(values, size);
+    }
+
+    @Override
+    public String toString(){
+        checkSource();
+        StringBuilder builder = new StringBuilder("[");
+        for(int i = 0; i < size; i++){
+            if(i > 0){
+                builder.append(", ");
+            }
+            builder.append(values[i]);
+        }
+        return builder.append("]").toString();
+    }
+}
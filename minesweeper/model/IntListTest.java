@@ -0,0 +1,42 @@
+/**
+ * Testing Class to represent an IntList.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+@Testable
+public class IntListTest {
+    @Test
+    public void testGrows(){
+        IntList list = new IntList(1);
+        for(int i = 0; i < 100; i++){
+            list.add(i * i);
+        }
+
+        assertEquals(100, list.size());
+        assertEquals(81, list.get(9));
+        assertTrue(list.contains(9801));
+        assertEquals(100, list.toArray().length);
+    }
+
+    @Test
+    public void testReadOnly(){
+        IntList list = new IntList(new int[]{4, 5, 6, 7}, 3);
+
+        assertArrayEquals(new int[]{4, 5, 6}, list.toArray());
+        assertEquals("[4, 5, 6]", list.toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(3));
+        assertThrows(UnsupportedOperationException.class, () -> list.add(8));
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Class to represent an IntSet, a set of cell indices without boxing.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+/**
+ * Class to represent an IntSet: a set of ints between 0 and a fixed bound, usually the cells
+ * of one board. The members sit in a dense array and each value remembers its place in it, so
+ * adding, removing (the last member moves into the gap), testing and picking the i-th member
+ * all take constant time, and walking the members costs only as many steps as there are.
+ * Members are in no particular order.
+ *
+ * view() hands the members out without copying them. The view is only good until the set
+ * next changes; after that reading it throws ConcurrentModificationException, the same as
+ * the java.util collections' iterators.
+ */
+public class IntSet {
+
+    private int[] members;
+    //One more than the value's place in members, 0 if it isn't a member.
+    private int[] slot;
+    private int size;
+    //Bumped by every change, so views can tell they are out of date.
+    private int modCount;
+
+    /**
+     * Constructor for an empty set.
+     * @param bound every value must be at least 0 and less than this.
+     */
+    public IntSet(int bound){
+        this.members = new int[bound];
+        this.slot = new int[bound];
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    public boolean contains(int value){
+        return slot[value] != 0;
+    }
+
+    /**
+     * @param i between 0 and size() - 1.
+     * @return the member at that place, which moves when members are removed.
+     */
+    public int get(int i){
+        if(i < 0 || i >= size){
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+        return members[i];
+    }
+
+    /**
+     * @param value the value to add.
+     * @return true if it wasn't a member already.
+     */
+    public boolean add(int value){
+        if(slot[value] != 0){
+            return false;
+        }
+        members[size++] = value;
+        slot[value] = size;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * @param value the value to remove.
+     * @return true if it was a member.
+     */
+    public boolean remove(int value){
+        if(slot[value] == 0){
+            return false;
+        }
+        int gap = slot[value] - 1;
+        int last = members[--size];
+        members[gap] = last;
+        slot[last] = gap + 1;
+        slot[value] = 0;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * @return the members as a read-only list which shares the set's array, so it costs
+     * nothing to make. Reading it once the set has changed throws ConcurrentModificationException.
+     */
+    public IntList view(){
+        return new IntList(this, members, size);
+    }
+
+    int getModCount(){
+        return modCount;
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Testing Class to represent an IntSet.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ConcurrentModificationException;
+
+import org.junit.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+@Testable
+public class IntSetTest {
+    @Test
+    public void testAddAndRemove(){
+        IntSet set = new IntSet(10);
+        assertTrue(set.add(3));
+        assertTrue(set.add(7));
+        assertTrue(set.add(0));
+        assertFalse(set.add(7));
+
+        assertTrue(set.remove(3));
+        assertFalse(set.remove(3));
+        assertFalse(set.contains(3));
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(7));
+        assertEquals(2, set.size());
+        //The last member moved into the gap.
+        assertEquals(0, set.get(0));
+        assertEquals(7, set.get(1));
+    }
+
+    @Test
+    public void testViewsGoStale(){
+        IntSet set = new IntSet(10);
+        set.add(1);
+        set.add(2);
+        IntList view = set.view();
+        assertEquals(2, view.size());
+        assertEquals(1, view.get(0));
+        assertThrows(UnsupportedOperationException.class, () -> view.add(3));
+
+        set.remove(1);
+        assertThrows(ConcurrentModificationException.class, () -> view.get(0));
+        assertThrows(ConcurrentModificationException.class, view::size);
+        IntList fresh = set.view();
+        assertEquals(1, fresh.size());
+        assertEquals(2, fresh.get(0));
+    }
+}
@@ -0,0 +1,405 @@
+/**
+ * Class to represent a LinearDeductionEngine which finds safe cells and mines by row reducing the numbers.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class to represent a LinearDeductionEngine which treats every uncovered number as a linear
+ * equation over its covered neighbours (each one 0 or 1) and row reduces the whole system with
+ * Gauss-Jordan elimination. Rows are kept sparse with exact integer coefficients, so nothing is
+ * lost to rounding. A row whose bounds leave a cell only one possible value settles that cell,
+ * which catches chains of numbers that the pair rule in DeductionEngine only sees two at a time.
+ * Settled cells are substituted back in and the system is reduced again until nothing changes.
+ * Like the other engines it only reads the game's PlayerView, never where the mines are.
+ */
+public class LinearDeductionEngine {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte SAFE = 1;
+    private static final byte MINE = 2;
+
+    //The game to follow, or null if the engine was given a single view.
+    private final Minesweeper game;
+    private PlayerView view;
+    private final int[] scratch = new int[8];
+
+    //The view the results were worked out from.
+    private PlayerView computedFrom;
+
+    //Settled cells, in ascending order so lookups can binary search them.
+    private int[] safeCells = new int[0];
+    private int[] mineCells = new int[0];
+
+    /**
+     * One equation: the sum of vals[i] times cell cols[i] is rhs. Columns are ascending.
+     */
+    private static class Row {
+        final int[] cols;
+        final long[] vals;
+        final long rhs;
+
+        Row(int[] cols, long[] vals, long rhs){
+            this.cols = cols;
+            this.vals = vals;
+            this.rhs = rhs;
+        }
+
+        long valueAt(int col){
+            int i = Arrays.binarySearch(cols, col);
+            return i >= 0 ? vals[i] : 0;
+        }
+    }
+
+    /**
+     * Constructor which attaches the engine to a game.
+     * @param game the game to follow.
+     */
+    public LinearDeductionEngine(Minesweeper game){
+        this.game = game;
+        this.view = game.getPlayerView();
+    }
+
+    /**
+     * Constructor which works on one fixed view, for example on another thread while the
+     * game goes on.
+     * @param view what the player can see.
+     */
+    public LinearDeductionEngine(PlayerView view){
+        this.game = null;
+        this.view = view;
+    }
+
+    //------------- Queries --------------//
+
+    /**
+     * Gets every covered cell which is certainly safe.
+     * @return the safe locations.
+     */
+    public List<Location> getSafeCells(){
+        update();
+        return toLocations(safeCells);
+    }
+
+    /**
+     * Gets one covered cell which is certainly safe, without building a list.
+     * @return the board index of a safe cell, or -1 if none is known.
+     */
+    public int getSafeCellIndex(){
+        update();
+        return safeCells.length == 0 ? -1 : safeCells[0];
+    }
+
+    /**
+     * Gets every covered cell which is certainly a mine.
+     * @return the mine locations.
+     */
+    public List<Location> getMineCells(){
+        update();
+        return toLocations(mineCells);
+    }
+
+    /**
+     * @param location the location to check.
+     * @return true if the location is covered and certainly safe.
+     */
+    public boolean isSafe(Location location){
+        update();
+        return view.contains(location) && Arrays.binarySearch(safeCells, view.indexOf(location.getRow(), location.getCol())) >= 0;
+    }
+
+    /**
+     * @param location the location to check.
+     * @return true if the location is covered and certainly a mine.
+     */
+    public boolean isMine(Location location){
+        update();
+        return view.contains(location) && Arrays.binarySearch(mineCells, view.indexOf(location.getRow(), location.getCol())) >= 0;
+    }
+
+    private List<Location> toLocations(int[] cells){
+        List<Location> locations = new ArrayList<>(cells.length);
+        for(int index : cells){
+            locations.add(view.locationOf(index));
+        }
+        return locations;
+    }
+
+    //------------- Solving --------------//
+
+    /**
+     * Solves the system again if a selection was made or undone since the last time.
+     */
+    public void update(){
+        if(game != null){
+            view = game.getLiveView();
+        }
+        //Views of one game have different versions, and a fixed view keeps its own.
+        if(computedFrom != null && computedFrom.getVersion() == view.getVersion()){
+            return;
+        }
+        compute();
+        computedFrom = view;
+    }
+
+    private void compute(){
+        int total = view.getTotalCells();
+
+        //Every uncovered number with a covered neighbour gives one equation. Frontier cells
+        //are numbered in board order, which keeps each equation's columns close together.
+        List<Integer> frontier = new ArrayList<>();
+        Map<Integer, Integer> columnOf = new HashMap<>();
+        List<int[]> equationCells = new ArrayList<>();
+        List<Integer> equationValue = new ArrayList<>();
+        for(int i = 0; i < total; i++){
+            if(view.isCovered(i)){
+                continue;
+            }
+            int count = view.neighbors(i, scratch);
+            int[] cells = new int[count];
+            int size = 0;
+            for(int n = 0; n < count; n++){
+                if(view.isCovered(scratch[n])){
+                    Integer column = columnOf.get(scratch[n]);
+                    if(column == null){
+                        column = frontier.size();
+                        columnOf.put(scratch[n], column);
+                        frontier.add(scratch[n]);
+                    }
+                    cells[size++] = column;
+                }
+            }
+            if(size > 0){
+                int[] columns = Arrays.copyOf(cells, size);
+                Arrays.sort(columns);
+                equationCells.add(columns);
+                equationValue.add(view.getNumber(i));
+            }
+        }
+
+        byte[] known = new byte[frontier.size()];
+        boolean changed = true;
+        while(changed){
+            List<Row> rows = substitute(equationCells, equationValue, known);
+            changed = settle(rows, known);
+            changed |= settle(reduce(rows), known);
+        }
+
+        int safeCount = 0;
+        int mineCount = 0;
+        for(byte k : known){
+            if(k == SAFE){
+                safeCount++;
+            } else if(k == MINE){
+                mineCount++;
+            }
+        }
+        safeCells = new int[safeCount];
+        mineCells = new int[mineCount];
+        safeCount = 0;
+        mineCount = 0;
+        for(int column = 0; column < known.length; column++){
+            if(known[column] == SAFE){
+                safeCells[safeCount++] = frontier.get(column);
+            } else if(known[column] == MINE){
+                mineCells[mineCount++] = frontier.get(column);
+            }
+        }
+        Arrays.sort(safeCells);
+        Arrays.sort(mineCells);
+    }
+
+    /**
+     * Builds the equations over the cells which are still unknown.
+     * @return one row per equation which still has an unknown cell.
+     */
+    private static List<Row> substitute(List<int[]> equationCells, List<Integer> equationValue, byte[] known){
+        List<Row> rows = new ArrayList<>(equationCells.size());
+        for(int e = 0; e < equationCells.size(); e++){
+            int[] cells = equationCells.get(e);
+            int[] cols = new int[cells.length];
+            int size = 0;
+            long rhs = equationValue.get(e);
+            for(int column : cells){
+                if(known[column] == MINE){
+                    rhs--;
+                } else if(known[column] == UNKNOWN){
+                    cols[size++] = column;
+                }
+            }
+            if(size > 0){
+                long[] vals = new long[size];
+                Arrays.fill(vals, 1);
+                rows.add(new Row(Arrays.copyOf(cols, size), vals, rhs));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Row reduces the equations. Each row is first cleared of every column that already has
+     * a pivot, and its first remaining column becomes a new pivot. Going back over the pivot
+     * rows from the last column to the first then clears the columns above each pivot.
+     * @param rows the equations.
+     * @return the nonzero rows of the reduced system.
+     */
+    private static List<Row> reduce(List<Row> rows){
+        Map<Integer, Row> pivotOf = new HashMap<>();
+        List<Integer> pivotColumns = new ArrayList<>();
+        for(Row row : rows){
+            Row reduced = eliminate(row, pivotOf, -1);
+            if(reduced == null || reduced.cols.length == 0){
+                continue;
+            }
+            pivotOf.put(reduced.cols[0], reduced);
+            pivotColumns.add(reduced.cols[0]);
+        }
+
+        pivotColumns.sort(null);
+        List<Row> result = new ArrayList<>(pivotColumns.size());
+        for(int p = pivotColumns.size() - 1; p >= 0; p--){
+            int column = pivotColumns.get(p);
+            Row reduced = eliminate(pivotOf.get(column), pivotOf, column);
+            if(reduced == null){
+                continue;
+            }
+            pivotOf.put(column, reduced);
+            result.add(reduced);
+        }
+        return result;
+    }
+
+    /**
+     * Subtracts pivot rows from a row until none of its columns, other than its own pivot,
+     * has a pivot. Pivot rows only reach columns at or after their pivot, so the columns can
+     * be walked in ascending order.
+     * @param row the row to clear.
+     * @param pivotOf the pivot row of each pivot column.
+     * @param ownPivot the row's own pivot column, or -1 if it has none.
+     * @return the cleared row, or null if the numbers got too big to hold.
+     */
+    private static Row eliminate(Row row, Map<Integer, Row> pivotOf, int ownPivot){
+        try {
+            for(int i = 0; i < row.cols.length; i++){
+                int column = row.cols[i];
+                Row pivot = column == ownPivot ? null : pivotOf.get(column);
+                if(pivot != null){
+                    row = combine(row, pivot, column);
+                    //The pivot column is gone, everything before it is unchanged.
+                    i--;
+                }
+            }
+            return row;
+        } catch(ArithmeticException e){
+            return null;
+        }
+    }
+
+    /**
+     * Works out a * row - b * pivot, where a and b are picked so the column cancels, and
+     * divides through by the common factor so the numbers stay small.
+     */
+    private static Row combine(Row row, Row pivot, int column){
+        long a = pivot.valueAt(column);
+        long b = row.valueAt(column);
+        int[] cols = new int[row.cols.length + pivot.cols.length];
+        long[] vals = new long[cols.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while(i < row.cols.length || j < pivot.cols.length){
+            int ci = i < row.cols.length ? row.cols[i] : Integer.MAX_VALUE;
+            int cj = j < pivot.cols.length ? pivot.cols[j] : Integer.MAX_VALUE;
+            int c = Math.min(ci, cj);
+            long v = 0;
+            if(ci == c){
+                v = Math.multiplyExact(a, row.vals[i++]);
+            }
+            if(cj == c){
+                v = Math.subtractExact(v, Math.multiplyExact(b, pivot.vals[j++]));
+            }
+            if(v != 0){
+                cols[size] = c;
+                vals[size++] = v;
+            }
+        }
+        long rhs = Math.subtractExact(Math.multiplyExact(a, row.rhs), Math.multiplyExact(b, pivot.rhs));
+
+        long divisor = Math.abs(rhs);
+        for(int k = 0; k < size; k++){
+            divisor = gcd(divisor, Math.abs(vals[k]));
+        }
+        //Keep the first coefficient positive.
+        if(size > 0 && vals[0] < 0){
+            divisor = -divisor;
+        }
+        if(divisor != 0 && divisor != 1){
+            for(int k = 0; k < size; k++){
+                vals[k] /= divisor;
+            }
+            rhs /= divisor;
+        }
+        return new Row(Arrays.copyOf(cols, size), Arrays.copyOf(vals, size), rhs);
+    }
+
+    private static long gcd(long a, long b){
+        while(b != 0){
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * Settles every cell which a row leaves only one value for. With every unknown cell at 0
+     * or 1 a row's sum lies between the sum of its negative and positive coefficients, so a
+     * cell is safe if being a mine would push that range past the row's value, and a mine if
+     * being safe would.
+     * @param rows the rows to check.
+     * @param known what is known about each column, updated in place.
+     * @return true if any cell was settled.
+     */
+    private static boolean settle(List<Row> rows, byte[] known){
+        boolean changed = false;
+        for(Row row : rows){
+            long low = 0;
+            long high = 0;
+            for(long v : row.vals){
+                if(v < 0){
+                    low += v;
+                } else {
+                    high += v;
+                }
+            }
+            for(int i = 0; i < row.cols.length; i++){
+                int column = row.cols[i];
+                if(known[column] != UNKNOWN){
+                    continue;
+                }
+                long v = row.vals[i];
+                //Range of the row's sum with this cell a mine, then with it safe.
+                long mineLow = v < 0 ? low : low + v;
+                long mineHigh = v < 0 ? high + v : high;
+                long safeLow = v < 0 ? low - v : low;
+                long safeHigh = v < 0 ? high : high - v;
+                boolean canBeMine = mineLow <= row.rhs && row.rhs <= mineHigh;
+                boolean canBeSafe = safeLow <= row.rhs && row.rhs <= safeHigh;
+                if(canBeMine != canBeSafe){
+                    known[column] = canBeMine ? MINE : SAFE;
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+}
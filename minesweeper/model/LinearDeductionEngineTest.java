@@ -0,0 +1,83 @@
+/**
+ * Testing Class to represent a LinearDeductionEngine.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+@Testable
+public class LinearDeductionEngineTest {
+
+    @Test
+    public void testOneOneOne() throws MinesweeperException{
+        Board board = new Board(3, 3, 0, new SplittableRandom(1));
+        Minesweeper game = new Minesweeper(3, 3, board);
+        board.makeBoard();
+        board.setType(board.indexOf(0, 1), CellType.BOMB_UNCHECKED);
+        game.makeSelection(new Location(2, 0));
+
+        LinearDeductionEngine engine = new LinearDeductionEngine(game);
+
+        assertTrue(engine.isMine(new Location(0, 1)));
+        assertTrue(engine.isSafe(new Location(0, 0)));
+        assertTrue(engine.isSafe(new Location(0, 2)));
+        assertEquals(2, engine.getSafeCells().size());
+    }
+
+    @Test
+    public void testNothingKnownBeforeFirstMove(){
+        Board board = new Board(9, 9, 10, new SplittableRandom(1));
+        Minesweeper game = new Minesweeper(9, 9, board);
+        board.makeBoard();
+        LinearDeductionEngine engine = new LinearDeductionEngine(game);
+
+        assertEquals(0, engine.getSafeCells().size());
+        assertEquals(0, engine.getMineCells().size());
+    }
+
+    @Test
+    public void testFindsMovesThePairRuleMisses() throws MinesweeperException{
+        int found = 0;
+        for(int seed = 0; seed < 100; seed++){
+            Board board = new Board(16, 30, 99, new SplittableRandom(seed));
+            Minesweeper game = new Minesweeper(16, 30, board);
+            board.makeBoard();
+            for(int i = 0; i < 16 * 30; i++){
+                if(!board.isMine(i) && board.getAdjacentMines(i) == 0){
+                    game.makeSelection(board.locationOf(i));
+                    break;
+                }
+            }
+            DeductionEngine rules = new DeductionEngine(game);
+            List<Location> safe = rules.getSafeCells();
+            while(!safe.isEmpty()){
+                for(Location location : safe){
+                    game.makeSelection(location);
+                }
+                safe = rules.getSafeCells();
+            }
+
+            LinearDeductionEngine engine = new LinearDeductionEngine(game);
+            for(Location location : engine.getSafeCells()){
+                assertFalse(board.isMine(board.indexOf(location.getRow(), location.getCol())));
+                found++;
+            }
+            for(Location location : engine.getMineCells()){
+                assertTrue(board.isMine(board.indexOf(location.getRow(), location.getCol())));
+            }
+        }
+        assertTrue(found > 0);
+    }
+}
@@ -10,6 +10,9 @@ package minesweeper.model;
 /**
  * Class to represent a Location which holds where a cell is.
  * Every cell on the Minesweeper board can be addressed using its row and column location.
+ * Inside the model a cell is usually an int instead, its board index row * cols + col; see
+ * Board.indexOf() and Board.locationOf() to go between the two, and IntList and IntSet for
+ * collections of indices.
  */
 public class Location {
 
@@ -42,9 +45,13 @@ public class Location {
         return false;
     }
 
+    /**
+     * Rows go in the top half and columns in the bottom half, so no two locations on a board
+     * up to 65536 wide share a hash.
+     */
     @Override
     public int hashCode(){
-        return row * 100 + col;
+        return Integer.rotateLeft(row, 16) ^ col;
     }
 
     @Override
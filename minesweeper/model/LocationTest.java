@@ -9,6 +9,9 @@ package minesweeper.model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.Test;
 import org.junit.platform.commons.annotation.Testable;
 
@@ -55,4 +58,16 @@ public class LocationTest {
         // analyze
         assertEquals(expected, actual);
     }
+
+    @Test
+    public void testHashCodesDontCollide() {
+        Set<Integer> hashes = new HashSet<>();
+        for(int row = 0; row < 300; row++){
+            for(int col = 0; col < 300; col++){
+                hashes.add(new Location(row, col).hashCode());
+            }
+        }
+
+        assertEquals(300 * 300, hashes.size());
+    }
 }
@@ -29,7 +29,29 @@ public class Minesweeper {
     private int moveCount;
     private Board gameBoard;
     private MinesweeperObserver observer;
-    private Collection<Location> allPossibleSelections;
+
+    //Move journal used by undoSelection(). journal holds every cell index uncovered, in order.
+    //selections holds three ints per selection: where its cells start in the journal,
+    //and the move count and game state from before it.
+    private int[] journal = new int[16];
+    private int journalSize;
+    private int[] selections = new int[24];
+    private int selectionCount;
+    //Bumped by every undo, so readers of the journal know entries they saw may be gone.
+    private int journalGeneration;
+
+    //Zobrist hash of the set of uncovered cells, see getStateHash().
+    private long stateHash;
+
+    //Bumped by every change to what the player can see. view is the last PlayerView handed
+    //out, reused until the version moves on. While a view shares the journal, undo copies
+    //it before entries the view can see get written over.
+    private long version;
+    private PlayerView view;
+    private boolean journalShared;
+    //The view the engines following this game read, see getLiveView().
+    private PlayerView liveView;
+    private int flagCount;
 
     /**
      * Constructor which initializes MineSweeper with set rows, cols and mineCount
@@ -48,7 +70,7 @@ public class Minesweeper {
 
     /**
      * Constructor which initializes Minesweeper with set rows and cols only
-     * (mineCount = rows + cols)
+     * (mineCount is taken from the board)
      * @param rows
      * @param cols
      * @param board
@@ -56,13 +78,15 @@ public class Minesweeper {
     public Minesweeper(int rows, int cols, Board board){
         this.rows = rows;
         this.cols = cols;
-        this.mineCount = rows + cols;
+        this.mineCount = board.getMineCount();
         this.moveCount = 0;
         this.gameBoard = board;
     }
 
     /**
-     * Constructor which makes deep copies of the Minesweeper implementation
+     * Constructor which makes deep copies of the Minesweeper implementation.
+     * The board is snapshotted copy-on-write, so the copy only pays for the cells
+     * that either game changes afterwards, and moves on one game never show up on the other.
      * @param minesweeper
      */
     public Minesweeper(Minesweeper minesweeper){
@@ -70,27 +94,13 @@ public class Minesweeper {
         this.moveCount = minesweeper.getMoveCount();
         this.rows = minesweeper.getRows();
         this.cols = minesweeper.getCols();
-        this.gameBoard = minesweeper.getBoard();
-        this.allPossibleSelections = new ArrayList<>(minesweeper.getAllPossibleSelections());
-        //What I'm trying to do right now except .length will not work
-        //this.gameBoard = Arrays.copyOf(minesweeper.getBoard(), minesweeper.getBoard().length)
-
+        this.gameBoard = new Board(minesweeper.getBoard());
+        this.current_pick = minesweeper.current_pick;
+        this.stateHash = minesweeper.stateHash;
+        this.flagCount = minesweeper.flagCount;
 
         this.observer = null;
         this.state = minesweeper.getGameState();
-
-        List<Cell> cellArray = new ArrayList<>();
-        for(Cell cell : minesweeper.getBoard().getTotalCells()){
-            Cell newCell = new Cell(new Location(cell.getLocation().getRow(), cell.getLocation().getRow()), cell.getType());
-            cellArray.add(newCell);
-        }
-
-        // this.board = Arrays.copyOf(original.board, original.board.length);
-        // this.movesToSolve = original.movesToSolve;
-        // this.size = original.size;
-        // this.openIndex = original.openIndex;
-        // this.moves = new ArrayList<>(original.moves);
-        // this.configurations = new HashSet<>(original.configurations);
     }
 
     /**
@@ -103,80 +113,308 @@ public class Minesweeper {
 
     /**
      * Notifies observers!
-     * @param location
+     * @param locations every location uncovered by one selection.
      */
-    private void notifyObservers(Location location) {
+    private void notifyObservers(List<Location> locations) {
         if(observer != null){
-            observer.cellUpdated(location);
+            observer.cellsUpdated(locations);
         }
     }
 
     /**
      * Choose a spot on the board to uncover.
+     * Picking a cell with no adjacent mines uncovers the whole opening around it,
+     * and the observer hears about all of it in one call.
+     * Also moves the game state on, see select().
      * @param location
-     * @throws MinesweeperException
+     * @return every location uncovered by this selection, empty if nothing was uncovered.
+     * @throws MinesweeperException if the location is not on the board.
      */
-    public void makeSelection(Location location) throws MinesweeperException{
-        if(gameBoard.isRealLocation(location)){
-
-            if(gameBoard.getCellAtLocation(location).getType() == CellType.SAFE_UNCHECKED){
-                //Sets the location, leaves the method.
-                current_pick = location;
-                gameBoard.getCellAtLocation(current_pick).updateCellType(CellType.SAFE_CHECKED);
-                this.moveCount += 1;
-                notifyObservers(location);
-            } 
-            
-            else if(gameBoard.getCellAtLocation(location).getType() == CellType.BOMB_UNCHECKED){
-                // gameBoard.getCellAtLocation(current_pick).updateCellType(CellType.BOMB_CHECKED);
-                this.moveCount += 1;
-                System.out.println("You cannot make a selection on this cell");
-            }            
+    public List<Location> makeSelection(Location location) throws MinesweeperException{
+        int result = select(location.getRow(), location.getCol());
+        SelectionOutcome outcome = SelectionOutcome.of(result);
+        if(outcome == SelectionOutcome.INVALID){
+            throw new MinesweeperException("Something went wrong with your new selection, make sure " + location + " exists.");
         }
+        if(outcome == SelectionOutcome.REVEALED || outcome == SelectionOutcome.WON){
+            current_pick = location;
+        }
+        //The cells this selection uncovered are the last ones in the journal.
+        int count = SelectionOutcome.revealedCount(result);
+        List<Location> locations = new ArrayList<>(count);
+        for(int i = journalSize - count; i < journalSize; i++){
+            locations.add(gameBoard.locationOf(journal[i]));
+        }
+        return locations;
+    }
 
-        else {
-            throw new MinesweeperException("Something went wrong with your new selection, make sure " + location + " exists.");
+    /**
+     * Same as select(int), by row and column.
+     * @param row row of the cell.
+     * @param col column of the cell.
+     * @return the outcome and count, packed as described in SelectionOutcome.
+     */
+    public int select(int row, int col){
+        if(!gameBoard.isRealLocation(row, col)){
+            return SelectionOutcome.INVALID.pack(0);
+        }
+        return select(gameBoard.indexOf(row, col));
+    }
+
+    /**
+     * Uncovers a cell without throwing or allocating. Moves the game state on: LOST if the
+     * cell is a mine, WON once no safe cell is left covered, IN_PROGRESS otherwise. The board
+     * counts its covered safe cells as they change, so telling a win apart costs nothing.
+     * Once the game is won or lost nothing more can be uncovered until a selection is undone.
+     * Every selection except an INVALID or GAME_OVER one can be undone with undoSelection().
+     * @param index board index of the cell, see Board.indexOf().
+     * @return the outcome and how many cells were uncovered, packed into an int; unpack it
+     *  with SelectionOutcome.of() and SelectionOutcome.revealedCount().
+     */
+    public int select(int index){
+        if(index < 0 || index >= rows * cols || !gameBoard.isRealLocation(0, 0)){
+            return SelectionOutcome.INVALID.pack(0);
+        }
+        if(state == GameState.WON || state == GameState.LOST){
+            return SelectionOutcome.GAME_OVER.pack(0);
+        }
+        recordSelection();
+
+        CellType type = gameBoard.getType(index);
+        if(type == CellType.SAFE_UNCHECKED){
+            int[] revealed = gameBoard.revealFrom(index);
+            this.moveCount += 1;
+            for(int cell : revealed){
+                recordReveal(cell);
+            }
+            version++;
+            if(observer != null){
+                List<Location> locations = new ArrayList<>(revealed.length);
+                for(int cell : revealed){
+                    locations.add(gameBoard.locationOf(cell));
+                }
+                notifyObservers(locations);
+            }
+            if(gameBoard.getCoveredSafeCount() == 0){
+                state = GameState.WON;
+                return SelectionOutcome.WON.pack(revealed.length);
+            }
+            state = GameState.IN_PROGRESS;
+            return SelectionOutcome.REVEALED.pack(revealed.length);
+        }
+
+        else if(type == CellType.BOMB_UNCHECKED){
+            this.moveCount += 1;
+            state = GameState.LOST;
+            return SelectionOutcome.MINE.pack(0);
+        }
+        return SelectionOutcome.ALREADY_OPEN.pack(0);
+    }
+
+    /**
+     * Takes back the most recent selection: covers every cell it uncovered and puts the
+     * move count and game state back. Every call to makeSelection() that didn't throw
+     * can be undone this way, most recent first. Allocates nothing.
+     * @return true if a selection was undone, false if there was nothing to undo.
+     */
+    public boolean undoSelection(){
+        if(selectionCount == 0){
+            return false;
+        }
+        selectionCount--;
+        journalGeneration++;
+        version++;
+        if(journalShared){
+            journal = journal.clone();
+            journalShared = false;
+        }
+        int start = selections[3 * selectionCount];
+        this.moveCount = selections[3 * selectionCount + 1];
+        this.state = GameState.values()[selections[3 * selectionCount + 2]];
+
+        while(journalSize > start){
+            int index = journal[--journalSize];
+            gameBoard.cover(index);
+            stateHash ^= zobristKey(index);
+        }
+        return true;
+    }
+
+    /**
+     * Opens a journal entry for a selection that is about to happen.
+     */
+    private void recordSelection(){
+        if(3 * selectionCount == selections.length){
+            selections = Arrays.copyOf(selections, selections.length * 2);
+        }
+        selections[3 * selectionCount] = journalSize;
+        selections[3 * selectionCount + 1] = moveCount;
+        selections[3 * selectionCount + 2] = state.ordinal();
+        selectionCount++;
+    }
+
+    /**
+     * Adds one uncovered cell to the current journal entry.
+     * @param index index of the cell.
+     */
+    private void recordReveal(int index){
+        if(journalSize == journal.length){
+            journal = Arrays.copyOf(journal, journal.length * 2);
+        }
+        journal[journalSize++] = index;
+        stateHash ^= zobristKey(index);
+    }
+
+    /**
+     * Gets what the player can see of the game right now. The same view is returned until
+     * a selection, undo or flag changes something.
+     * @return a read-only snapshot of the visible state.
+     */
+    public PlayerView getPlayerView(){
+        if(view == null || view.getVersion() != version || !gameBoard.isRealLocation(0, 0)){
+            view = new PlayerView(gameBoard, mineCount, flagCount, version, stateHash,
+                journal, journalSize, journalGeneration, true);
+            journalShared = true;
+        }
+        return view;
+    }
+
+    /**
+     * Gets a view which reads this game's own board and journal rather than a snapshot of
+     * them, so it costs one small object per change and nothing per cell. Only for engines
+     * which follow the game on its own thread and fetch the view again each time they look,
+     * such as when a solver searches the game in place; it is stale once anything changes.
+     * @return a view of the visible state which is only good until the next change.
+     */
+    PlayerView getLiveView(){
+        if(view != null && view.getVersion() == version && gameBoard.isRealLocation(0, 0)){
+            return view;
+        }
+        if(liveView == null || liveView.getVersion() != version || !gameBoard.isRealLocation(0, 0)){
+            liveView = new PlayerView(gameBoard, mineCount, flagCount, version, stateHash,
+                journal, journalSize, journalGeneration, false);
         }
+        return liveView;
+    }
+
+    /**
+     * @return a stamp which changes with every change to what the player can see, the same
+     *  one the game's views carry.
+     */
+    long getVersion(){
+        return version;
+    }
+
+    /**
+     * Flags a covered cell, or takes the flag off again. Flags are only the player's marks.
+     * @param location the cell to flag.
+     * @return true if the cell is now flagged.
+     * @throws MinesweeperException if the location isn't on the board.
+     */
+    public boolean toggleFlag(Location location) throws MinesweeperException{
+        if(!gameBoard.isRealLocation(location)){
+            throw new MinesweeperException("Cannot flag " + location + ", it does not exist.");
+        }
+        int index = gameBoard.indexOf(location.getRow(), location.getCol());
+        if(gameBoard.isRevealed(index)){
+            return false;
+        }
+        boolean flagged = !gameBoard.isFlagged(index);
+        gameBoard.setFlagged(index, flagged);
+        flagCount += flagged ? 1 : -1;
+        version++;
+        return flagged;
+    }
+
+    /**
+     * @return how many cells the player has flagged.
+     */
+    public int getFlagCount(){
+        return flagCount;
+    }
+
+    /**
+     * @return how many cell indices are in the move journal.
+     */
+    int getJournalSize(){
+        return journalSize;
+    }
+
+    /**
+     * @param i position in the move journal.
+     * @return the index of the i-th cell uncovered.
+     */
+    int getJournalEntry(int i){
+        return journal[i];
+    }
+
+    /**
+     * @return a number which changes whenever entries are taken off the journal.
+     */
+    int getJournalGeneration(){
+        return journalGeneration;
+    }
+
+    /**
+     * The random 64 bit key of one cell for the Zobrist hash. Worked out from the index
+     * with the SplitMix64 finaliser instead of stored, so it costs no memory per cell.
+     * @param index index of the cell.
+     * @return the key of the cell.
+     */
+    private static long zobristKey(int index){
+        long z = (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Zobrist hash of which cells are uncovered: the XOR of the keys of every cell
+     * uncovered through makeSelection(). Kept up to date by every selection and undo,
+     * so the same position has the same hash whichever order it was reached in.
+     * @return the hash of the current position.
+     */
+    public long getStateHash(){
+        return this.stateHash;
     }
 
     /**
      * Gets the safe possible selections around a uncovered cell.
      * Used for the hint function.
+     * The board keeps the set up to date as cells are uncovered, so this costs only
+     * the copy; the list is a copy in no particular order.
      * @return A list of the safe selections.
      */
     public Collection<Location> getPossibleSelections(){
-        
-        Collection<Location> safeSelection = new ArrayList<>();
-        
-        for(int i = 0; i<gameBoard.getCells().size(); i++){
-            List<Cell> currentRow = gameBoard.getCells().get(i);
-            for(Cell cell : currentRow){
-                if(cell.getType() == CellType.SAFE_UNCHECKED){
-                    safeSelection.add(cell.getLocation());
-                }
-            }
-        }
-        return safeSelection;
+        return gameBoard.getCoveredSafeCells();
     }
 
     /**
      * GETS ALL POSSIBLE SELECTIONS EVEN ONES THAT WOULD RESULT IN GAME OVER....
      * Used for getSuccessors() by Jack
-     * @return A list of the safe selections.
+     * A copy in no particular order, like getPossibleSelections().
+     * @return A list of the covered selections.
      */
     public Collection<Location> getAllPossibleSelections(){
-        
-        allPossibleSelections= new ArrayList<>();
-        
-        for(int i = 0; i<gameBoard.getCells().size(); i++){
-            List<Cell> currentRow = gameBoard.getCells().get(i);
-            for(Cell cell : currentRow){
-                if(cell.getType() == CellType.SAFE_UNCHECKED || cell.getType() == CellType.BOMB_UNCHECKED){
-                    allPossibleSelections.add(cell.getLocation());
-                }
-            }
-        }
-        return allPossibleSelections;
+        return gameBoard.getCoveredCells();
+    }
+
+    /**
+     * Same as getPossibleSelections(), as board indices. A view rather than a copy, good
+     * until the next move, see Board.getCoveredSafeIndices().
+     * @return the indices of the covered safe cells.
+     */
+    public IntList getPossibleSelectionIndices(){
+        return gameBoard.getCoveredSafeIndices();
+    }
+
+    /**
+     * Same as getAllPossibleSelections(), as board indices, and a view like
+     * getPossibleSelectionIndices().
+     * @return the indices of the covered cells.
+     */
+    public IntList getAllPossibleSelectionIndices(){
+        return gameBoard.getCoveredIndices();
     }
 
     /**
@@ -224,23 +462,13 @@ public class Minesweeper {
 
     /**
      * Method which calculates the number of adjacent mines given a particular Cell of the Board
+     * The count is kept by the Board as mines are placed, so this is a single read.
      * @param cell
      * @return number of adjacent mines
      * @author Bibhash
      */
     private int calculateAdjacentMines(Cell cell){
-        int mines = 0;
-        List<List<Cell>> allCells = gameBoard.getCells();
-        for(List<Cell> cellRow : allCells){
-            for(Cell otherCell : cellRow){
-                if(cell.isAdjacent(otherCell)){
-                    if(otherCell.getType() == CellType.BOMB_UNCHECKED){
-                        mines++;
-                    }
-                }
-            }
-        }
-        return mines;
+        return gameBoard.getMinesAroundCell(cell);
     }
 
     /**
@@ -304,7 +532,6 @@ public class Minesweeper {
 
             else {
                 int numOfMines = calculateAdjacentMines(currentCell);
-                System.out.println(numOfMines);
                 return (char)(numOfMines + '0');
             }
     }
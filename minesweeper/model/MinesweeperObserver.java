@@ -7,6 +7,19 @@
 
 package minesweeper.model;
 
+import java.util.List;
+
 public interface MinesweeperObserver {
     public void cellUpdated(Location location);
+
+    /**
+     * Called once for every cell uncovered by a single selection.
+     * By default forwards each location to cellUpdated().
+     * @param locations the locations uncovered, in the order they were uncovered.
+     */
+    public default void cellsUpdated(List<Location> locations){
+        for(Location location : locations){
+            cellUpdated(location);
+        }
+    }
 }
@@ -3,14 +3,45 @@ package minesweeper.model;
 import java.util.ArrayList;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 
 import backtracker.Configuration;
-
-public class MinesweeperSolver implements Configuration{
+import backtracker.HashedConfiguration;
+import backtracker.MutableConfiguration;
+
+/**
+ * Solver configuration for a Minesweeper game.
+ * Works both as a Configuration, where every successor is a copy of the game,
+ * and as a MutableConfiguration, where one game is searched in place using
+ * makeSelection() and undoSelection().
+ * Moves are picked from what the player can see only. A position where the deduction engines
+ * prove a cell safe offers just that cell, since the order safe cells are uncovered in changes
+ * nothing. Otherwise it offers every cell ProbabilityEngine says is tied for least likely to
+ * be a mine (see getSafestCells(), which lists one cell for all those off the frontier), so
+ * the search branches on the guesses a player could equally well make. A guess is played like
+ * a player would play it: if it hits a mine the game is lost and that line has no moves left,
+ * and the search backtracks to the next guess at the last branch. The goal is the game's own
+ * WON state.
+ * Exposes the game's Zobrist hash so the backtracker can skip positions
+ * it already reached with the same cells picked in another order.
+ */
+public class MinesweeperSolver implements Configuration, MutableConfiguration<Location>, HashedConfiguration{
     private Minesweeper minesweeper;
     private final ArrayList<Location> previousMoves;
+    //Set when the last move applied was off the board, so the game never saw it.
+    private boolean offBoard;
+    //Search steps ProbabilityEngine may take per component, as for the hints.
+    private static final long NODE_LIMIT = 1_000_000;
+
+    //Made on first use and kept, so searching in place only catches up on what changed.
+    private DeductionEngine deduction;
+    private LinearDeductionEngine linear;
+    private ProbabilityEngine probability;
+    //The moves offered for the game version movesVersion.
+    private List<Location> moves;
+    private long movesVersion = -1;
     
 
     public MinesweeperSolver(Minesweeper minesweeper){
@@ -28,42 +59,97 @@ public class MinesweeperSolver implements Configuration{
     @Override
     public Collection<Configuration> getSuccessors() {
         List<Configuration> successors = new ArrayList<>();
-
-        //Look through ever location on the board
-        for(Location location : minesweeper.getAllPossibleSelections()){
-
-            //Create new instances of these things for use in the algorithm
-            Minesweeper game = new Minesweeper(minesweeper);
-            MinesweeperSolver thisConfiguration = new MinesweeperSolver(game, previousMoves);
-
-            //Is used to make sure that the 
-            try {
-                game.makeSelection(location);
-                //error would occur here, making the code below unreached...
-                //Check to see if the move wasnt a mine, if it was, dont bother adding it to the config
-                if(game.getGameState() != GameState.LOST){
-                    thisConfiguration.previousMoves.add(location);
-                    successors.add(thisConfiguration);
-                }
-            } catch(MinesweeperException e) {
-                if(game.getGameState() == GameState.WON){
-                    thisConfiguration.previousMoves.add(location);
-                    successors.add(thisConfiguration);
-                }
+        Iterator<Configuration> children = successors();
+        while(children.hasNext()){
+            Configuration child = children.next();
+            if(child.isValid()){
+                successors.add(child);
             }
         }
         return successors;
     }
 
+    /**
+     * Builds each successor only when the backtracker asks for it, so the copies of the
+     * game for later moves are never made if an earlier one leads to a solution.
+     */
     @Override
-    public boolean isValid() {
-        // this should return true if the move made was accepted (returned true
-        // and the game is not lost)
-        if(minesweeper.getGameState() != GameState.LOST){
-            return true;
+    public Iterator<Configuration> successors() {
+        Iterator<Location> locations = getMoves().iterator();
+        return new Iterator<Configuration>() {
+            @Override
+            public boolean hasNext() {
+                return locations.hasNext();
+            }
+
+            @Override
+            public Configuration next() {
+                //Create new instances of these things for use in the algorithm
+                Minesweeper game = new Minesweeper(minesweeper);
+                MinesweeperSolver thisConfiguration = new MinesweeperSolver(game, new ArrayList<>(previousMoves));
+                thisConfiguration.apply(locations.next());
+                return thisConfiguration;
+            }
+        };
+    }
+
+    /**
+     * Picks the moves to try from what the player can see. Worked out once per version of
+     * the game.
+     * @return a proven safe cell, or if there is none every guess tied for safest; nothing
+     *  once the game is over.
+     */
+    @Override
+    public Collection<Location> getMoves() {
+        GameState state = minesweeper.getGameState();
+        if(state == GameState.WON || state == GameState.LOST){
+            return List.of();
+        }
+        if(moves != null && movesVersion == minesweeper.getVersion()){
+            return moves;
+        }
+        if(deduction == null){
+            deduction = new DeductionEngine(minesweeper);
+            linear = new LinearDeductionEngine(minesweeper);
+            probability = new ProbabilityEngine(minesweeper);
+            probability.setNodeLimit(NODE_LIMIT);
+        }
+
+        int safe = deduction.getSafeCellIndex();
+        if(safe < 0){
+            safe = linear.getSafeCellIndex();
+        }
+        if(safe >= 0){
+            moves = List.of(minesweeper.getBoard().locationOf(safe));
         } else {
-            return false;
+            moves = probability.getSafestCells();
         }
+        movesVersion = minesweeper.getVersion();
+        return moves;
+    }
+
+    @Override
+    public void apply(Location location) {
+        previousMoves.add(location);
+        int result = minesweeper.select(location.getRow(), location.getCol());
+        //Not a real location, the game never saw it.
+        offBoard = SelectionOutcome.of(result) == SelectionOutcome.INVALID;
+    }
+
+    @Override
+    public void undo(Location location) {
+        previousMoves.remove(previousMoves.size() - 1);
+        if(!offBoard){
+            minesweeper.undoSelection();
+        }
+        offBoard = false;
+    }
+
+    @Override
+    public boolean isValid() {
+        // this should return true if the move made was accepted. A move that loses the
+        // game still counts, the lost game just has nowhere to go from there.
+        return !offBoard;
     }
 
     @Override
@@ -71,6 +157,14 @@ public class MinesweeperSolver implements Configuration{
         return minesweeper.getGameState() == GameState.WON;
     }
 
+    @Override
+    public long getStateHash() {
+        //Hitting a mine uncovers nothing, so a lost game has its parent's hash. Flip it so the
+        //table doesn't take the loss for the position it came from.
+        long hash = minesweeper.getStateHash();
+        return minesweeper.getGameState() == GameState.LOST ? ~hash : hash;
+    }
+
     @Override
     public String toString(){
         return minesweeper.toString();
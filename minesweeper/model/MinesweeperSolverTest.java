@@ -0,0 +1,358 @@
+/**
+ * Testing Class for the Minesweeper solver configuration.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import backtracker.Backtracker;
+import backtracker.Configuration;
+import backtracker.HashedConfiguration;
+import backtracker.IterativeBacktracker;
+import backtracker.ParallelBacktracker;
+import backtracker.SearchStatus;
+import backtracker.TranspositionTable;
+
+@Testable
+public class MinesweeperSolverTest {
+    @Test
+    public void testSolveInPlace() throws MinesweeperException{
+        Board board = new Board(6, 6, 5, new Random(3));
+        Minesweeper game = new Minesweeper(6, 6, board);
+        board.makeBoard();
+
+        MinesweeperSolver solver = new MinesweeperSolver(new Minesweeper(game));
+        List<Location> moves = new Backtracker(false).solveInPlace(solver);
+        for(Location move : moves){
+            game.makeSelection(move);
+        }
+
+        assertEquals(true, solver.isGoal());
+        assertEquals(0, game.getPossibleSelections().size());
+    }
+
+    @Test
+    public void testSolveWithLazySuccessors(){
+        Board board = new Board(6, 6, 5, new Random(3));
+        Minesweeper game = new Minesweeper(6, 6, board);
+        board.makeBoard();
+
+        MinesweeperSolver solution = (MinesweeperSolver) new Backtracker(false).solve(new MinesweeperSolver(game));
+
+        assertEquals(true, solution.isGoal());
+        //Solving works on copies, the game itself is untouched.
+        assertEquals(31, game.getPossibleSelections().size());
+    }
+
+    @Test
+    public void testIterativeSolveStopsCleanly(){
+        Board board = new Board(500, 500, 0.1, new Random(9));
+        Minesweeper game = new Minesweeper(500, 500, board);
+        board.makeBoard();
+        //Open a blank cell first so the search has deductions to make instead of a guess.
+        for(int i = 0; i < 500 * 500; i++){
+            if(!board.isMine(i) && board.getAdjacentMines(i) == 0){
+                game.select(i);
+                break;
+            }
+        }
+        int expected = game.getPossibleSelections().size();
+
+        IterativeBacktracker backtracker = new IterativeBacktracker(false);
+        backtracker.setNodeLimit(50);
+        MinesweeperSolver solver = new MinesweeperSolver(game);
+        List<Location> moves = backtracker.solveInPlace(solver);
+
+        assertEquals(null, moves);
+        assertEquals(SearchStatus.NODE_LIMIT, backtracker.getStatus());
+        //Every move was undone again.
+        assertEquals(expected, game.getPossibleSelections().size());
+        assertEquals(1, game.getMoveCount());
+    }
+
+    @Test
+    public void testIterativeSolve(){
+        Board board = new Board(8, 8, 6, new Random(4));
+        Minesweeper game = new Minesweeper(8, 8, board);
+        board.makeBoard();
+
+        IterativeBacktracker backtracker = new IterativeBacktracker(false);
+        MinesweeperSolver solution = (MinesweeperSolver) backtracker.solve(new MinesweeperSolver(game));
+
+        assertEquals(SearchStatus.SOLVED, backtracker.getStatus());
+        assertEquals(true, solution.isGoal());
+    }
+
+    @Test
+    public void testParallelSolve() throws MinesweeperException{
+        //MinesweeperSolver hardly ever branches, so search mine layouts of a stuck frontier instead.
+        Board board = new Board(16, 30, 99, new SplittableRandom(1));
+        Minesweeper game = new Minesweeper(16, 30, board);
+        board.makeBoard();
+        for(int i = 0; i < 16 * 30; i++){
+            if(!board.isMine(i) && board.getAdjacentMines(i) == 0){
+                game.makeSelection(board.locationOf(i));
+                break;
+            }
+        }
+        DeductionEngine engine = new DeductionEngine(game);
+        List<Location> safe = engine.getSafeCells();
+        while(!safe.isEmpty()){
+            for(Location location : safe){
+                game.makeSelection(location);
+            }
+            safe = engine.getSafeCells();
+        }
+        FrontierConfiguration root = new FrontierConfiguration(game.getPlayerView());
+        int cells = root.getFrontier().size();
+        assertTrue(cells > 20);
+
+        ParallelBacktracker parallel = new ParallelBacktracker(4, 4);
+        Backtracker sequential = new Backtracker(false);
+        int allowed = 0;
+        for(int mines = 0; mines <= cells; mines++){
+            FrontierConfiguration layout = (FrontierConfiguration) parallel.solve(root.withMines(mines));
+            assertEquals(sequential.solve(root.withMines(mines)) != null, layout != null);
+            if(layout == null){
+                continue;
+            }
+            allowed++;
+            //Every number agrees with the layout found.
+            int[] adjacent = new int[8];
+            for(int i = 0; i < 16 * 30; i++){
+                if(board.isRevealed(i)){
+                    int count = board.neighbors(i, adjacent);
+                    int found = 0;
+                    for(int n = 0; n < count; n++){
+                        if(layout.isMine(adjacent[n])){
+                            found++;
+                        }
+                    }
+                    assertEquals(board.getAdjacentMines(i), found);
+                }
+            }
+        }
+        parallel.shutdown();
+        assertTrue(allowed > 0 && allowed <= cells);
+    }
+
+    @Test
+    public void testHashIgnoresMoveOrder() throws MinesweeperException{
+        Board board = new Board(1, 6, 1, new Random(2));
+        board.makeBoard();
+        Location mine = board.getMineCells().get(0).getLocation();
+        if(!mine.equals(new Location(0, 2))){
+            board.moveMine(mine, new Location(0, 2));
+        }
+        Minesweeper game1 = new Minesweeper(1, 6, board);
+        Minesweeper game2 = new Minesweeper(game1);
+
+        game1.makeSelection(new Location(0, 0));
+        game1.makeSelection(new Location(0, 5));
+        game2.makeSelection(new Location(0, 5));
+        game2.makeSelection(new Location(0, 0));
+
+        assertEquals(game1.getStateHash(), game2.getStateHash());
+        game1.undoSelection();
+        game1.undoSelection();
+        assertEquals(0L, game1.getStateHash());
+    }
+
+    @Test
+    public void testSolveWithTranspositionTable(){
+        //A board where some lines of guesses meet again, found by trying seeds.
+        Board board = new Board(12, 12, 30, new Random(23));
+        Minesweeper game = new Minesweeper(12, 12, board);
+        board.makeBoard();
+
+        Backtracker backtracker = new Backtracker(false);
+        TranspositionTable table = new TranspositionTable(1 << 12);
+        backtracker.setTranspositionTable(table);
+        MinesweeperSolver solver = new MinesweeperSolver(game);
+        List<Location> moves = backtracker.solveInPlace(solver);
+
+        assertEquals(true, moves != null);
+        assertEquals(true, solver.isGoal());
+        assertTrue(table.getHits() > 0);
+    }
+
+    /**
+     * A tiny search graph: 0 leads to 1 and 2, 1 leads to 2, 2 leads to the goal 3.
+     */
+    private static class GraphState implements Configuration, HashedConfiguration {
+        private static final int[][] EDGES = {{1, 2}, {2}, {3}, {}};
+        private final int state;
+
+        GraphState(int state){
+            this.state = state;
+        }
+
+        @Override
+        public Collection<Configuration> getSuccessors(){
+            List<Configuration> successors = new ArrayList<>();
+            for(int next : EDGES[state]){
+                successors.add(new GraphState(next));
+            }
+            return successors;
+        }
+
+        @Override
+        public boolean isValid(){
+            return true;
+        }
+
+        @Override
+        public boolean isGoal(){
+            return state == 3;
+        }
+
+        @Override
+        public long getStateHash(){
+            return state;
+        }
+    }
+
+    @Test
+    public void testDepthLimitedTableSearchesAgainHigherUp(){
+        IterativeBacktracker backtracker = new IterativeBacktracker(false);
+        backtracker.setDepthLimit(2);
+        backtracker.setTranspositionTable(new TranspositionTable(64));
+
+        //2 is first reached at depth 2 through 1, too deep to go on, then at depth 1.
+        GraphState goal = (GraphState) backtracker.solve(new GraphState(0));
+        assertEquals(3, goal.state);
+        assertEquals(SearchStatus.SOLVED, backtracker.getStatus());
+    }
+
+    @Test
+    public void testCancelBeforeSolveIsKept(){
+        IterativeBacktracker backtracker = new IterativeBacktracker(false);
+        backtracker.cancel();
+        assertEquals(null, backtracker.solve(new GraphState(0)));
+        assertEquals(SearchStatus.CANCELLED, backtracker.getStatus());
+        //The request was used up by the search it stopped.
+        assertEquals(3, ((GraphState) backtracker.solve(new GraphState(0))).state);
+
+        ParallelBacktracker parallel = new ParallelBacktracker(2, 1);
+        try {
+            parallel.cancel();
+            assertEquals(null, parallel.solve(new GraphState(0)));
+            assertEquals(3, ((GraphState) parallel.solve(new GraphState(0))).state);
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    public void testLosingGuessIsNotTakenBack() throws MinesweeperException{
+        //The first guess on a blank board is the first cell, so put the mine there.
+        Board board = new Board(1, 5, 1, new Random(2));
+        board.makeBoard();
+        Location mine = board.getMineCells().get(0).getLocation();
+        if(!mine.equals(new Location(0, 0))){
+            board.moveMine(mine, new Location(0, 0));
+        }
+        Minesweeper game = new Minesweeper(1, 5, board);
+
+        IterativeBacktracker backtracker = new IterativeBacktracker(false);
+        //Stepping on the mine and trying the next cell would win, but a player can't do that.
+        assertEquals(null, backtracker.solveInPlace(new MinesweeperSolver(game)));
+        assertEquals(SearchStatus.NO_SOLUTION, backtracker.getStatus());
+        assertEquals(2, backtracker.getNodeCount());
+        assertEquals(GameState.NOT_STARTED, game.getGameState());
+    }
+
+    @Test
+    public void testTiedGuessesBranch() throws MinesweeperException{
+        Board board = new Board(2, 2, 1, new Random(2));
+        board.makeBoard();
+        Location mine = board.getMineCells().get(0).getLocation();
+        if(!mine.equals(new Location(0, 0))){
+            board.moveMine(mine, new Location(0, 0));
+        }
+        Minesweeper game = new Minesweeper(2, 2, board);
+        game.makeSelection(new Location(1, 1));
+
+        //The other three cells are tied, and the first one offered is the mine.
+        MinesweeperSolver solver = new MinesweeperSolver(game);
+        assertEquals(3, solver.getMoves().size());
+        IterativeBacktracker backtracker = new IterativeBacktracker(false);
+        List<Location> moves = backtracker.solveInPlace(solver);
+
+        assertEquals(SearchStatus.SOLVED, backtracker.getStatus());
+        assertEquals(false, moves.contains(new Location(0, 0)));
+        assertEquals(GameState.WON, game.getGameState());
+    }
+
+    /**
+     * Bytes allocated per node by an in-place search of a size x size board, after opening
+     * a blank cell.
+     */
+    private static double bytesPerNode(int size){
+        Board board = new Board(size, size, 0.1, new SplittableRandom(size));
+        Minesweeper game = new Minesweeper(size, size, board);
+        board.makeBoard();
+        for(int i = 0; i < size * size; i++){
+            if(!board.isMine(i) && board.getAdjacentMines(i) == 0){
+                game.select(i);
+                break;
+            }
+        }
+        IterativeBacktracker backtracker = new IterativeBacktracker(false);
+        backtracker.setNodeLimit(2000);
+        MinesweeperSolver solver = new MinesweeperSolver(game);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        backtracker.solveInPlace(solver);
+        return (double)(threads.getThreadAllocatedBytes(thread) - before) / backtracker.getNodeCount();
+    }
+
+    @Test
+    public void testInPlaceSearchAllocationStaysFlat(){
+        bytesPerNode(30);
+        double small = bytesPerNode(30);
+        double large = bytesPerNode(200);
+
+        //A snapshot of a 200x200 board is 40 KB, so one per node would show up many times over.
+        assertTrue(large < 2048, large + " bytes per node");
+        assertTrue(large < 4 * small + 512, large + " bytes per node against " + small);
+    }
+
+    @Test
+    public void testMovesComeFromTheView() throws MinesweeperException{
+        Board board = new Board(16, 30, 99, new SplittableRandom(5));
+        Minesweeper game = new Minesweeper(16, 30, board);
+        board.makeBoard();
+        for(int i = 0; i < 16 * 30; i++){
+            if(!board.isMine(i) && board.getAdjacentMines(i) == 0){
+                game.makeSelection(board.locationOf(i));
+                break;
+            }
+        }
+        DeductionEngine engine = new DeductionEngine(game);
+
+        MinesweeperSolver solver = new MinesweeperSolver(game);
+
+        //With proven safe cells around, one of them is the only move offered.
+        assertEquals(true, engine.getSafeCells().size() > 1);
+        assertEquals(1, solver.getMoves().size());
+        assertEquals(true, engine.isSafe(solver.getMoves().iterator().next()));
+    }
+}
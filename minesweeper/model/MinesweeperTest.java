@@ -8,6 +8,11 @@
 package minesweeper.model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 import org.junit.platform.commons.annotation.Testable;
@@ -74,4 +79,171 @@ public class MinesweeperTest {
 
         assertEquals(expected, actual);
     }
+
+    @Test
+    public void testSelectionOpensEmptyBoard() throws MinesweeperException{
+        Board board = new Board(5, 5, 0, new Random(1));
+        Minesweeper game = new Minesweeper(5, 5, board);
+        board.makeBoard();
+
+        List<Location> revealed = game.makeSelection(new Location(2, 2));
+
+        assertEquals(25, revealed.size());
+        assertEquals(0, game.getPossibleSelections().size());
+        assertEquals(1, game.getMoveCount());
+    }
+
+    @Test
+    public void testSelectionStopsAtNumbers() throws MinesweeperException{
+        Board board = new Board(1, 5, 0, new Random(1));
+        Minesweeper game = new Minesweeper(1, 5, board);
+        board.makeBoard();
+        board.getCellAtLocation(new Location(0, 4)).setType(CellType.BOMB_UNCHECKED);
+
+        List<Location> revealed = game.makeSelection(new Location(0, 0));
+
+        assertEquals(4, revealed.size());
+        assertEquals(CellType.BOMB_UNCHECKED, board.getCellAtLocation(new Location(0, 4)).getType());
+    }
+
+    @Test
+    public void testCopyIsIsolated() throws MinesweeperException{
+        Board board = new Board(80, 80, 0.15, new Random(5));
+        Minesweeper game = new Minesweeper(80, 80, board);
+        board.makeBoard();
+        String expected = game.toString();
+
+        Minesweeper game2 = new Minesweeper(game);
+        Location safe = game2.getPossibleSelections().iterator().next();
+        game2.makeSelection(safe);
+
+        assertEquals(expected, game.toString());
+        assertEquals(CellType.SAFE_UNCHECKED, board.getCellAtLocation(safe).getType());
+        assertEquals(CellType.SAFE_CHECKED, game2.getBoard().getCellAtLocation(safe).getType());
+    }
+
+    @Test
+    public void testUndoSelection() throws MinesweeperException{
+        Board board = new Board(12, 12, 0.1, new Random(11));
+        Minesweeper game = new Minesweeper(12, 12, board);
+        board.makeBoard();
+        String expected = game.toString();
+
+        for(Location location : game.getPossibleSelections()){
+            game.makeSelection(location);
+        }
+        while(game.undoSelection()){
+            ;
+        }
+
+        assertEquals(expected, game.toString());
+        assertEquals(0, game.getMoveCount());
+    }
+
+    @Test
+    public void testSelectionsMoveTheGameState() throws MinesweeperException{
+        Board board = new Board(1, 5, 1, new Random(1));
+        Minesweeper game = new Minesweeper(1, 5, board);
+        board.makeBoard();
+        Location mine = board.getMineCells().get(0).getLocation();
+        if(!mine.equals(new Location(0, 2))){
+            board.moveMine(mine, new Location(0, 2));
+        }
+
+        game.makeSelection(new Location(0, 0));
+        assertEquals(GameState.IN_PROGRESS, game.getGameState());
+        game.makeSelection(new Location(0, 3));
+        assertEquals(GameState.IN_PROGRESS, game.getGameState());
+        game.makeSelection(new Location(0, 4));
+        assertEquals(GameState.WON, game.getGameState());
+
+        game.undoSelection();
+        assertEquals(GameState.IN_PROGRESS, game.getGameState());
+        game.makeSelection(new Location(0, 2));
+        assertEquals(GameState.LOST, game.getGameState());
+
+        game.undoSelection();
+        game.undoSelection();
+        game.undoSelection();
+        assertEquals(GameState.NOT_STARTED, game.getGameState());
+    }
+
+    @Test
+    public void testSelectOutcomes() throws MinesweeperException{
+        Board board = new Board(1, 5, 1, new Random(1));
+        Minesweeper game = new Minesweeper(1, 5, board);
+        board.makeBoard();
+        int mine = 2;
+        if(!board.isMine(mine)){
+            board.moveMine(board.locationOf(board.getMineIndices().get(0)), board.locationOf(mine));
+        }
+        int safe = 0;
+
+        int result = game.select(safe);
+        assertEquals(SelectionOutcome.REVEALED, SelectionOutcome.of(result));
+        assertEquals(game.getBoard().getRevealedCount(), SelectionOutcome.revealedCount(result));
+        assertEquals(SelectionOutcome.ALREADY_OPEN, SelectionOutcome.of(game.select(safe)));
+        assertEquals(SelectionOutcome.INVALID, SelectionOutcome.of(game.select(1, 5)));
+        assertEquals(SelectionOutcome.INVALID, SelectionOutcome.of(game.select(-1)));
+        assertEquals(SelectionOutcome.MINE, SelectionOutcome.of(game.select(mine)));
+        assertEquals(GameState.LOST, game.getGameState());
+
+        //Every selection but the invalid ones can be undone.
+        assertTrue(game.undoSelection());
+        assertTrue(game.undoSelection());
+        assertTrue(game.undoSelection());
+        assertFalse(game.undoSelection());
+        assertEquals(GameState.NOT_STARTED, game.getGameState());
+    }
+
+    @Test
+    public void testSelectWins(){
+        Board board = new Board(3, 3, 0, new Random(1));
+        Minesweeper game = new Minesweeper(3, 3, board);
+        board.makeBoard();
+
+        int result = game.select(1, 1);
+
+        assertEquals(SelectionOutcome.WON, SelectionOutcome.of(result));
+        assertEquals(9, SelectionOutcome.revealedCount(result));
+    }
+
+    @Test
+    public void testSelectAfterLoss(){
+        Board board = new Board(1, 5, 1, new Random(1));
+        Minesweeper game = new Minesweeper(1, 5, board);
+        board.makeBoard();
+        int mine = board.getMineIndices().get(0);
+        int safe = mine == 0 ? 4 : 0;
+
+        assertEquals(SelectionOutcome.MINE, SelectionOutcome.of(game.select(mine)));
+        int moves = game.getMoveCount();
+        assertEquals(SelectionOutcome.GAME_OVER, SelectionOutcome.of(game.select(safe)));
+        assertEquals(GameState.LOST, game.getGameState());
+        assertFalse(board.isRevealed(safe));
+        assertEquals(moves, game.getMoveCount());
+
+        //Taking the losing move back lets the game go on.
+        assertTrue(game.undoSelection());
+        assertTrue(SelectionOutcome.revealedCount(game.select(safe)) > 0);
+        assertTrue(board.isRevealed(safe));
+    }
+
+    @Test
+    public void testSelectAfterWin(){
+        Board board = new Board(1, 5, 1, new Random(1));
+        Minesweeper game = new Minesweeper(1, 5, board);
+        board.makeBoard();
+        int mine = board.getMineIndices().get(0);
+        for(int i = 0; i < 5; i++){
+            if(i != mine){
+                game.select(i);
+            }
+        }
+        assertEquals(GameState.WON, game.getGameState());
+
+        assertEquals(SelectionOutcome.GAME_OVER, SelectionOutcome.of(game.select(mine)));
+        assertEquals(GameState.WON, game.getGameState());
+        assertFalse(board.isRevealed(mine));
+    }
 }
@@ -0,0 +1,492 @@
+/**
+ * Class to represent a MonteCarloEngine which estimates mine chances by sampling layouts.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Class to represent a MonteCarloEngine which estimates how likely each covered cell is to be
+ * a mine by drawing random mine layouts that fit everything the player can see. It is meant
+ * for frontiers too big for the ProbabilityEngine to enumerate.
+ *
+ * Each sample fills the frontier one cell at a time in breadth first order. A cell that the
+ * numbers around it force is given that value, otherwise it is a mine or not with even odds,
+ * and a fill that reaches a number it can no longer meet is thrown away. Picking at random
+ * favours layouts with fewer free choices, so each sample is weighted by 2 to the number of
+ * choices it made, and by how many ways the leftover mines fit in the cells off the frontier.
+ * The weighted averages then converge to the exact probabilities.
+ *
+ * Sampling runs on every worker of a pool, each with its own SplittableRandom, until the time
+ * or sample budget runs out. The estimates are usable after every call to sample(), and each
+ * call adds to the samples already taken for the same view, so the answer only gets better.
+ * Confidence bounds use the effective sample size of the weights.
+ */
+public class MonteCarloEngine {
+
+    //z for a two sided 95% interval.
+    private static final double Z = 1.96;
+    private static final double LOG_2 = Math.log(2);
+    //Samples a worker takes between looks at the clock.
+    private static final int CLOCK_INTERVAL = 64;
+
+    private final Minesweeper game;
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final int workers;
+    private final SplittableRandom random;
+
+    private long timeLimitNanos = 100_000_000L;
+    private long sampleLimit = Long.MAX_VALUE;
+
+    //The view the samples were drawn for, and its constraints. frontier is sorted by index
+    //for lookups, frontierOrder is the order cells are filled in, and sortedSlot maps a
+    //position in frontierOrder to its place in frontier.
+    private PlayerView view;
+    private int[] frontier;
+    private int[] frontierOrder;
+    private int[] sortedSlot;
+    private int[][] cellConstraints;
+    private int[] constraintValue;
+    private int[] constraintSize;
+    private int interiorCells;
+
+    private Tally total;
+
+    /**
+     * Constructor which attaches the engine to a game and samples on its own pool.
+     * @param game the game to follow.
+     * @param workers how many threads to sample on.
+     * @param random generator the per-thread generators are split from.
+     */
+    public MonteCarloEngine(Minesweeper game, int workers, SplittableRandom random){
+        this.game = game;
+        this.workers = workers;
+        this.pool = new ForkJoinPool(workers);
+        this.ownsPool = true;
+        this.random = random;
+    }
+
+    /**
+     * Constructor which samples on an existing pool, one worker per thread of it, so callers
+     * that sample again and again don't start and stop threads every time.
+     * @param game the game to follow.
+     * @param pool the pool to sample on. shutdown() leaves it running.
+     * @param random generator the per-thread generators are split from.
+     */
+    public MonteCarloEngine(Minesweeper game, ForkJoinPool pool, SplittableRandom random){
+        this.game = game;
+        this.workers = pool.getParallelism();
+        this.pool = pool;
+        this.ownsPool = false;
+        this.random = random;
+    }
+
+    /**
+     * Constructor which samples on every core.
+     * @param game the game to follow.
+     */
+    public MonteCarloEngine(Minesweeper game){
+        this(game, Runtime.getRuntime().availableProcessors(), new SplittableRandom());
+    }
+
+    /**
+     * @param millis how long one call to sample() may run, in milliseconds.
+     */
+    public void setTimeLimit(long millis){
+        this.timeLimitNanos = millis * 1_000_000L;
+    }
+
+    /**
+     * @param samples how many samples one call to sample() may take at most.
+     */
+    public void setSampleLimit(long samples){
+        this.sampleLimit = samples;
+    }
+
+    /**
+     * Shut down the sampling threads, if the engine made its own pool.
+     */
+    public void shutdown(){
+        if(ownsPool){
+            pool.shutdown();
+        }
+    }
+
+    //------------- Queries --------------//
+
+    /**
+     * @param location the location to check.
+     * @return the estimated chance that the cell is a mine, 0 if it is uncovered.
+     */
+    public double getMineProbability(Location location){
+        int slot = slotOf(location);
+        if(slot == -2){
+            return 0;
+        }
+        return estimate(slot);
+    }
+
+    /**
+     * @param location the location to check.
+     * @return the lower end of the 95% confidence interval for the cell.
+     */
+    public double getLowerBound(Location location){
+        double p = getMineProbability(location);
+        return Math.max(0, p - margin(p));
+    }
+
+    /**
+     * @param location the location to check.
+     * @return the upper end of the 95% confidence interval for the cell.
+     */
+    public double getUpperBound(Location location){
+        double p = getMineProbability(location);
+        return Math.min(1, p + margin(p));
+    }
+
+    /**
+     * @return the covered cell with the lowest estimate, or null before any sample was kept.
+     */
+    public Location getSafestCell(){
+        if(total == null || total.weight == 0){
+            return null;
+        }
+        int best = -1;
+        double bestProbability = 2;
+        for(int slot = 0; slot < frontier.length; slot++){
+            double p = estimate(slot);
+            if(p < bestProbability){
+                bestProbability = p;
+                best = frontier[slot];
+            }
+        }
+        if(interiorCells > 0 && estimate(-1) < bestProbability){
+            for(int i = 0; i < view.getTotalCells(); i++){
+                if(view.isCovered(i) && Arrays.binarySearch(frontier, i) < 0){
+                    best = i;
+                    break;
+                }
+            }
+        }
+        return best == -1 ? null : view.locationOf(best);
+    }
+
+    /**
+     * @return how many samples fit the numbers, over every call since the view last changed.
+     */
+    public long getSampleCount(){
+        return total == null ? 0 : total.kept;
+    }
+
+    /**
+     * @return how many samples were thrown away for reaching a number they couldn't meet.
+     */
+    public long getRejectedCount(){
+        return total == null ? 0 : total.rejected;
+    }
+
+    /**
+     * @return how many equally weighted samples the weighted ones are worth.
+     */
+    public double getEffectiveSampleSize(){
+        return total == null || total.squares == 0 ? 0 : total.weight * total.weight / total.squares;
+    }
+
+    private int slotOf(Location location){
+        if(view == null || !view.contains(location)){
+            return -2;
+        }
+        int index = view.indexOf(location.getRow(), location.getCol());
+        if(!view.isCovered(index)){
+            return -2;
+        }
+        int slot = Arrays.binarySearch(frontier, index);
+        return slot >= 0 ? slot : -1;
+    }
+
+    /**
+     * @param slot a frontier slot, or -1 for the cells off the frontier.
+     */
+    private double estimate(int slot){
+        if(total == null || total.weight == 0){
+            return view == null ? 0 : (double)view.getMineCount() / Math.max(1, view.getCoveredCount());
+        }
+        return (slot == -1 ? total.interior : total.mines[slot]) / total.weight;
+    }
+
+    private double margin(double p){
+        double n = getEffectiveSampleSize();
+        return n == 0 ? 1 : Z * Math.sqrt(p * (1 - p) / n);
+    }
+
+    //------------- Sampling --------------//
+
+    /**
+     * Draws samples on every worker until the time or sample budget is used up and adds them
+     * to the estimates. Starts over if the game has changed since the last call.
+     */
+    public void sample(){
+        PlayerView latest = game.getPlayerView();
+        if(latest != view){
+            view = latest;
+            build();
+        }
+
+        long deadline = System.nanoTime() + timeLimitNanos;
+        long perWorker = sampleLimit == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(1, sampleLimit / workers);
+        List<Future<Tally>> results = new ArrayList<>(workers);
+        for(int w = 0; w < workers; w++){
+            SplittableRandom generator = random.split();
+            results.add(pool.submit(() -> run(generator, deadline, perWorker)));
+        }
+        for(Future<Tally> result : results){
+            try {
+                total.add(result.get());
+            } catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                return;
+            } catch(ExecutionException e){
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Reads the constraints off the view and numbers the frontier breadth first, so each
+     * number's cells are filled close together and a dead end shows up early.
+     */
+    private void build(){
+        int boardCells = view.getTotalCells();
+        int[] scratch = new int[8];
+        Map<Integer, List<Integer>> constraintsOf = new HashMap<>();
+        List<Integer> values = new ArrayList<>();
+        List<int[]> members = new ArrayList<>();
+        for(int i = 0; i < boardCells; i++){
+            if(view.isCovered(i)){
+                continue;
+            }
+            int count = view.neighbors(i, scratch);
+            int[] cells = new int[count];
+            int size = 0;
+            for(int n = 0; n < count; n++){
+                if(view.isCovered(scratch[n])){
+                    cells[size++] = scratch[n];
+                }
+            }
+            if(size > 0){
+                for(int k = 0; k < size; k++){
+                    constraintsOf.computeIfAbsent(cells[k], key -> new ArrayList<>()).add(values.size());
+                }
+                values.add(view.getNumber(i));
+                members.add(Arrays.copyOf(cells, size));
+            }
+        }
+
+        //Breadth first over cells sharing a number.
+        List<Integer> order = new ArrayList<>(constraintsOf.size());
+        Map<Integer, Integer> slotOf = new HashMap<>();
+        List<Integer> starts = new ArrayList<>(constraintsOf.keySet());
+        starts.sort(null);
+        for(int start : starts){
+            if(slotOf.containsKey(start)){
+                continue;
+            }
+            slotOf.put(start, order.size());
+            order.add(start);
+            for(int head = order.size() - 1; head < order.size(); head++){
+                for(int c : constraintsOf.get(order.get(head))){
+                    for(int cell : members.get(c)){
+                        if(!slotOf.containsKey(cell)){
+                            slotOf.put(cell, order.size());
+                            order.add(cell);
+                        }
+                    }
+                }
+            }
+        }
+
+        int cells = order.size();
+        cellConstraints = new int[cells][];
+        for(int s = 0; s < cells; s++){
+            List<Integer> touched = constraintsOf.get(order.get(s));
+            cellConstraints[s] = touched.stream().mapToInt(Integer::intValue).toArray();
+        }
+        constraintValue = values.stream().mapToInt(Integer::intValue).toArray();
+        constraintSize = members.stream().mapToInt(m -> m.length).toArray();
+
+        frontierOrder = order.stream().mapToInt(Integer::intValue).toArray();
+        frontier = frontierOrder.clone();
+        Arrays.sort(frontier);
+        sortedSlot = new int[cells];
+        for(int s = 0; s < cells; s++){
+            sortedSlot[s] = Arrays.binarySearch(frontier, frontierOrder[s]);
+        }
+        interiorCells = view.getCoveredCount() - cells;
+        total = new Tally(cells);
+    }
+
+    /**
+     * One worker's share of a call to sample().
+     */
+    private Tally run(SplittableRandom generator, long deadline, long limit){
+        int cells = frontierOrder.length;
+        int constraints = constraintValue.length;
+        int mineCount = view.getMineCount();
+        Tally tally = new Tally(cells);
+        int[] need = new int[constraints];
+        int[] room = new int[constraints];
+        boolean[] mine = new boolean[cells];
+
+        for(long taken = 0; taken < limit; taken++){
+            if(taken % CLOCK_INTERVAL == 0 && System.nanoTime() - deadline > 0){
+                break;
+            }
+            System.arraycopy(constraintValue, 0, need, 0, constraints);
+            System.arraycopy(constraintSize, 0, room, 0, constraints);
+
+            double logWeight = 0;
+            int mines = 0;
+            boolean dead = false;
+            for(int s = 0; s < cells && !dead; s++){
+                int low = 0;
+                int high = 1;
+                for(int c : cellConstraints[s]){
+                    low = Math.max(low, need[c] - (room[c] - 1));
+                    high = Math.min(high, need[c]);
+                }
+                if(low > high){
+                    dead = true;
+                    break;
+                }
+                boolean isMine;
+                if(low == high){
+                    isMine = low == 1;
+                } else {
+                    isMine = generator.nextBoolean();
+                    logWeight += LOG_2;
+                }
+                mine[s] = isMine;
+                for(int c : cellConstraints[s]){
+                    room[c]--;
+                    if(isMine){
+                        need[c]--;
+                    }
+                }
+                if(isMine){
+                    mines++;
+                }
+            }
+
+            int left = mineCount - mines;
+            if(dead || left < 0 || left > interiorCells){
+                tally.rejected++;
+                continue;
+            }
+            logWeight += logChoose(interiorCells, left);
+            tally.add(logWeight, mine, sortedSlot, interiorCells == 0 ? 0 : (double)left / interiorCells);
+        }
+        return tally;
+    }
+
+    /**
+     * @return the natural log of n choose k.
+     */
+    static double logChoose(int n, int k){
+        return logFactorial(n) - logFactorial(k) - logFactorial(n - k);
+    }
+
+    private static final double[] SMALL_LOG_FACTORIALS = new double[256];
+
+    static {
+        for(int n = 2; n < SMALL_LOG_FACTORIALS.length; n++){
+            SMALL_LOG_FACTORIALS[n] = SMALL_LOG_FACTORIALS[n - 1] + Math.log(n);
+        }
+    }
+
+    /**
+     * @return ln(n!), from a table for small n and Stirling's series above it.
+     */
+    static double logFactorial(int n){
+        if(n < SMALL_LOG_FACTORIALS.length){
+            return SMALL_LOG_FACTORIALS[n];
+        }
+        double x = n;
+        return x * Math.log(x) - x + 0.5 * Math.log(2 * Math.PI * x)
+            + 1 / (12 * x) - 1 / (360 * x * x * x);
+    }
+
+    /**
+     * Weighted sums over samples. Weights are far too big for a double, so every sum is kept
+     * relative to the biggest log weight seen, and rescaled when a bigger one arrives.
+     */
+    private static class Tally {
+        double scale = Double.NEGATIVE_INFINITY;
+        double weight;
+        double squares;
+        final double[] mines;
+        double interior;
+        long kept;
+        long rejected;
+
+        Tally(int cells){
+            mines = new double[cells];
+        }
+
+        private void rescale(double newScale){
+            if(newScale <= scale){
+                return;
+            }
+            double factor = scale == Double.NEGATIVE_INFINITY ? 0 : Math.exp(scale - newScale);
+            weight *= factor;
+            squares *= factor * factor;
+            interior *= factor;
+            for(int i = 0; i < mines.length; i++){
+                mines[i] *= factor;
+            }
+            scale = newScale;
+        }
+
+        void add(double logWeight, boolean[] mine, int[] sortedSlot, double interiorChance){
+            rescale(logWeight);
+            double w = Math.exp(logWeight - scale);
+            weight += w;
+            squares += w * w;
+            interior += w * interiorChance;
+            for(int s = 0; s < mine.length; s++){
+                if(mine[s]){
+                    mines[sortedSlot[s]] += w;
+                }
+            }
+            kept++;
+        }
+
+        void add(Tally other){
+            rejected += other.rejected;
+            kept += other.kept;
+            if(other.weight == 0){
+                return;
+            }
+            rescale(other.scale);
+            double factor = Math.exp(other.scale - scale);
+            weight += other.weight * factor;
+            squares += other.squares * factor * factor;
+            interior += other.interior * factor;
+            for(int i = 0; i < mines.length; i++){
+                mines[i] += other.mines[i] * factor;
+            }
+        }
+    }
+}
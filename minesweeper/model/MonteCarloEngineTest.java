@@ -0,0 +1,128 @@
+/**
+ * Testing Class to represent a MonteCarloEngine.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+@Testable
+public class MonteCarloEngineTest {
+
+    //An expert board played with the pair rules until they are stuck.
+    private static Minesweeper stuckGame(int seed) throws MinesweeperException{
+        Board board = new Board(16, 30, 99, new SplittableRandom(seed));
+        Minesweeper game = new Minesweeper(16, 30, board);
+        board.makeBoard();
+        for(int i = 0; i < 16 * 30; i++){
+            if(!board.isMine(i) && board.getAdjacentMines(i) == 0){
+                game.makeSelection(board.locationOf(i));
+                break;
+            }
+        }
+        DeductionEngine engine = new DeductionEngine(game);
+        List<Location> safe = engine.getSafeCells();
+        while(!safe.isEmpty()){
+            for(Location location : safe){
+                game.makeSelection(location);
+            }
+            safe = engine.getSafeCells();
+        }
+        return game;
+    }
+
+    @Test
+    public void testLogChoose(){
+        assertEquals(Math.log(252), MonteCarloEngine.logChoose(10, 5), 1e-9);
+        //C(1000, 3) = 166167000, past the small table.
+        assertEquals(Math.log(166167000.0), MonteCarloEngine.logChoose(1000, 3), 1e-9);
+    }
+
+    @Test
+    public void testAgreesWithExactEngine() throws MinesweeperException{
+        Minesweeper game = stuckGame(2);
+        ProbabilityEngine exact = new ProbabilityEngine(game);
+        MonteCarloEngine sampler = new MonteCarloEngine(game, 2, new SplittableRandom(1));
+        sampler.setSampleLimit(200_000);
+        sampler.setTimeLimit(10_000);
+        sampler.sample();
+        sampler.shutdown();
+
+        assertTrue(sampler.getSampleCount() > 0);
+        for(Location location : exact.getFrontier()){
+            assertEquals(exact.getMineProbability(location), sampler.getMineProbability(location), 0.05);
+            assertTrue(sampler.getLowerBound(location) <= sampler.getUpperBound(location));
+        }
+    }
+
+    @Test
+    public void testSamplesAddUpAcrossCalls() throws MinesweeperException{
+        Minesweeper game = stuckGame(3);
+        MonteCarloEngine sampler = new MonteCarloEngine(game, 1, new SplittableRandom(2));
+        sampler.setSampleLimit(1000);
+
+        sampler.sample();
+        long first = sampler.getSampleCount() + sampler.getRejectedCount();
+        sampler.sample();
+        long second = sampler.getSampleCount() + sampler.getRejectedCount();
+        sampler.shutdown();
+
+        assertEquals(1000, first);
+        assertEquals(2000, second);
+    }
+
+    @Test
+    public void testTimeLimit() throws MinesweeperException{
+        Board board = new Board(300, 300, 0.2, new SplittableRandom(4));
+        Minesweeper game = new Minesweeper(300, 300, board);
+        board.makeBoard();
+        for(int i = 0; i < 300 * 300; i++){
+            if(!board.isMine(i) && board.getAdjacentMines(i) == 0){
+                game.makeSelection(board.locationOf(i));
+                break;
+            }
+        }
+        MonteCarloEngine sampler = new MonteCarloEngine(game, 2, new SplittableRandom(3));
+        sampler.setTimeLimit(50);
+
+        long start = System.nanoTime();
+        sampler.sample();
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        sampler.shutdown();
+
+        //The constraints are built first, the budget only covers sampling.
+        assertTrue(elapsed < 2000);
+        assertTrue(sampler.getSafestCell() != null);
+    }
+
+    @Test
+    public void testSharedPoolOutlivesEngines() throws MinesweeperException{
+        Minesweeper game = stuckGame(4);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for(int round = 0; round < 2; round++){
+                MonteCarloEngine sampler = new MonteCarloEngine(game, pool, new SplittableRandom(round));
+                sampler.setSampleLimit(1000);
+                sampler.sample();
+                sampler.shutdown();
+                assertTrue(sampler.getSampleCount() + sampler.getRejectedCount() >= 1000);
+            }
+            //shutdown() left the pool it was given running.
+            assertFalse(pool.isShutdown());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,370 @@
+/**
+ * Class to represent an OffHeapBoard which holds a very large gameboard outside the Java heap.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * Class to represent an OffHeapBoard, for boards too big for Board. Cells are packed into bytes
+ * the same way Board packs them (see Board.COUNT_MASK and the bits after it), but they live in
+ * direct buffers outside the heap, so the collector never scans or copies them, and they are
+ * indexed by long, so a board can have more than Integer.MAX_VALUE cells. A 50,000 x 50,000
+ * board is 2.5 GB of native memory and a few hundred bytes of heap.
+ *
+ * Direct memory is capped by -XX:MaxDirectMemorySize, which defaults to the heap size, so run
+ * giant boards with that raised rather than -Xmx. The memory is held until close(), after which
+ * every method throws IllegalStateException; the collector frees it once the buffers are gone.
+ *
+ * The counts are filled in by bands of rows on the common pool, and the read methods may be called from
+ * any number of threads at once as long as nothing is writing to the cells they read.
+ */
+public class OffHeapBoard implements AutoCloseable {
+
+    //A direct buffer is indexed by int, so the cells are split into chunks of 2^30 bytes.
+    private static final int CHUNK_SHIFT = 30;
+    //Rows per task when filling in the counts.
+    private static final int BAND_ROWS = 64;
+
+    private final int rows;
+    private final int cols;
+    private final long total;
+    private final long mineCount;
+    private final RandomGenerator random;
+    private final int chunkShift;
+    private final long chunkMask;
+
+    private ByteBuffer[] chunks;
+    private long revealedCount;
+    private long coveredSafeCount;
+
+    /**
+     * Constructor which sets the size of the board. The native memory is allocated by makeBoard().
+     * @param rows of the board.
+     * @param cols of the board.
+     * @param mineCount number of mines to place.
+     * @param random generator used to place the mines.
+     */
+    public OffHeapBoard(int rows, int cols, long mineCount, RandomGenerator random){
+        this(rows, cols, mineCount, random, CHUNK_SHIFT);
+    }
+
+    /**
+     * Constructor which sets the size of the board from a mine density.
+     * @param rows of the board.
+     * @param cols of the board.
+     * @param density fraction of cells which are mines, between 0 and 1.
+     * @param random generator used to place the mines.
+     */
+    public OffHeapBoard(int rows, int cols, double density, RandomGenerator random){
+        this(rows, cols, Math.round((long)rows * cols * density), random);
+    }
+
+    /**
+     * Constructor with a chunk size, so tests can cross chunks on small boards.
+     * @param chunkShift log2 of the bytes in each chunk.
+     */
+    OffHeapBoard(int rows, int cols, long mineCount, RandomGenerator random, int chunkShift){
+        if(rows <= 0 || cols <= 0){
+            throw new IllegalArgumentException("A board needs at least one row and one column");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.total = (long)rows * cols;
+        if(mineCount < 0 || mineCount > total){
+            throw new IllegalArgumentException("Cannot place " + mineCount + " mines on " + total + " cells");
+        }
+        this.mineCount = mineCount;
+        this.random = random;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1L << chunkShift) - 1;
+    }
+
+    //------------- Getters --------------//
+
+    public int getRows(){
+        return rows;
+    }
+
+    public int getCols(){
+        return cols;
+    }
+
+    public long getTotalCells(){
+        return total;
+    }
+
+    public long getMineCount(){
+        return mineCount;
+    }
+
+    public long getRevealedCount(){
+        return revealedCount;
+    }
+
+    /**
+     * @return how many cells are neither a mine nor uncovered. The game is won at zero.
+     */
+    public long getCoveredSafeCount(){
+        return coveredSafeCount;
+    }
+
+    /**
+     * @param r row of the cell.
+     * @param c column of the cell.
+     * @return the index of the cell, or -1 if it is off the board.
+     */
+    public long indexAt(int r, int c){
+        if(r < 0 || r >= rows || c < 0 || c >= cols){
+            return -1;
+        }
+        return (long)r * cols + c;
+    }
+
+    public boolean isMine(long index){
+        return (bits(index) & Board.MINE_BIT) != 0;
+    }
+
+    public boolean isRevealed(long index){
+        return (bits(index) & Board.REVEALED_BIT) != 0;
+    }
+
+    public boolean isFlagged(long index){
+        return (bits(index) & Board.FLAG_BIT) != 0;
+    }
+
+    /**
+     * @param index index of the cell.
+     * @return the number of mines around the cell.
+     */
+    public int getAdjacentMines(long index){
+        return bits(index) & Board.COUNT_MASK;
+    }
+
+    /**
+     * Sets or clears the player's flag on a cell.
+     * @param index index of the cell.
+     * @param flagged whether the cell is flagged.
+     */
+    public void setFlagged(long index, boolean flagged){
+        int bits = bits(index);
+        setBits(index, flagged ? bits | Board.FLAG_BIT : bits & ~Board.FLAG_BIT);
+    }
+
+    //------------- Native memory --------------//
+
+    private ByteBuffer[] chunks(){
+        if(chunks == null){
+            throw new IllegalStateException("The board is closed or has not been made");
+        }
+        return chunks;
+    }
+
+    private int bits(long index){
+        return chunks()[(int)(index >>> chunkShift)].get((int)(index & chunkMask));
+    }
+
+    private void setBits(long index, int bits){
+        chunks()[(int)(index >>> chunkShift)].put((int)(index & chunkMask), (byte)bits);
+    }
+
+    /**
+     * Lets go of the native memory. The board can be made again with makeBoard().
+     */
+    @Override
+    public void close(){
+        chunks = null;
+    }
+
+    //------------- Functional Methods -----------------//
+
+    /**
+     * Allocates the cells, places the mines and fills in the counts.
+     */
+    public void makeBoard(){
+        int chunkCount = (int)((total + chunkMask) >>> chunkShift);
+        chunks = new ByteBuffer[chunkCount];
+        for(int i = 0; i < chunkCount; i++){
+            long size = Math.min(1L << chunkShift, total - ((long)i << chunkShift));
+            //Direct buffers start zeroed: every cell covered, safe and unflagged.
+            chunks[i] = ByteBuffer.allocateDirect((int)size);
+        }
+        revealedCount = 0;
+        coveredSafeCount = total - mineCount;
+
+        createMines();
+        fillCounts();
+    }
+
+    /**
+     * Places the mines with Floyd's sampling, as Board does, so the mine bits double as the
+     * set of cells already chosen and nothing is kept on the heap.
+     */
+    private void createMines(){
+        for(long j = total - mineCount; j < total; j++){
+            long pick = random.nextLong(j + 1);
+            long cell = isMine(pick) ? j : pick;
+            setBits(cell, bits(cell) | Board.MINE_BIT);
+        }
+    }
+
+    /**
+     * Works out every cell's count, a band of rows per task on the common pool. Rows are
+     * copied out in bulk, and each one is counted by adding up the mines in every column of
+     * the three rows around it and sliding a window of three columns along. A task only
+     * writes its own rows and only reads the mine bits around them, which no task changes.
+     */
+    private void fillCounts(){
+        int bands = (rows + BAND_ROWS - 1) / BAND_ROWS;
+        IntStream.range(0, bands).parallel().forEach(band -> {
+            byte[] above = new byte[cols];
+            byte[] current = new byte[cols];
+            byte[] below = new byte[cols];
+            int first = band * BAND_ROWS;
+            int last = Math.min(rows, first + BAND_ROWS) - 1;
+            if(first > 0){
+                readRow(first - 1, above);
+            }
+            readRow(first, current);
+            for(int r = first; r <= last; r++){
+                boolean hasBelow = r < rows - 1;
+                if(hasBelow){
+                    readRow(r + 1, below);
+                }
+                int left = 0;
+                int middle = columnMines(above, current, below, 0, r > 0, hasBelow);
+                for(int c = 0; c < cols; c++){
+                    int right = c < cols - 1 ? columnMines(above, current, below, c + 1, r > 0, hasBelow) : 0;
+                    int mine = (current[c] & Board.MINE_BIT) >>> 4;
+                    current[c] |= left + middle + right - mine;
+                    left = middle;
+                    middle = right;
+                }
+                writeRow(r, current);
+                //Roll the rows up one. The counts just added to current stay out of the
+                //mine bits, which are all the next row reads.
+                byte[] spare = above;
+                above = current;
+                current = below;
+                below = spare;
+            }
+        });
+    }
+
+    private static int columnMines(byte[] above, byte[] current, byte[] below, int c, boolean hasAbove, boolean hasBelow){
+        int mines = (current[c] & Board.MINE_BIT) >>> 4;
+        if(hasAbove){
+            mines += (above[c] & Board.MINE_BIT) >>> 4;
+        }
+        if(hasBelow){
+            mines += (below[c] & Board.MINE_BIT) >>> 4;
+        }
+        return mines;
+    }
+
+    /**
+     * Copies one row of cells out of native memory, across a chunk boundary if it has to.
+     */
+    private void readRow(int r, byte[] row){
+        ByteBuffer[] cells = chunks();
+        long index = (long)r * cols;
+        int done = 0;
+        while(done < cols){
+            int chunk = (int)(index >>> chunkShift);
+            int offset = (int)(index & chunkMask);
+            int length = Math.min(cols - done, cells[chunk].capacity() - offset);
+            cells[chunk].get(offset, row, done, length);
+            done += length;
+            index += length;
+        }
+    }
+
+    /**
+     * Copies one row of cells back into native memory.
+     */
+    private void writeRow(int r, byte[] row){
+        ByteBuffer[] cells = chunks();
+        long index = (long)r * cols;
+        int done = 0;
+        while(done < cols){
+            int chunk = (int)(index >>> chunkShift);
+            int offset = (int)(index & chunkMask);
+            int length = Math.min(cols - done, cells[chunk].capacity() - offset);
+            cells[chunk].put(offset, row, done, length);
+            done += length;
+            index += length;
+        }
+    }
+
+    /**
+     * Uncovers a covered safe cell and, if it has no adjacent mines, the whole opening around
+     * it and the opening's numbered border. The work stack holds cell indices and only grows
+     * as far as the opening needs.
+     * @param index index of a covered cell.
+     * @return how many cells were uncovered, or -1 if the cell is a mine.
+     */
+    public long revealFrom(long index){
+        int bits = bits(index);
+        if((bits & Board.MINE_BIT) != 0){
+            return -1;
+        }
+        if((bits & Board.REVEALED_BIT) != 0){
+            return 0;
+        }
+        long[] stack = new long[64];
+        int size = 0;
+        long count = 1;
+        setBits(index, bits | Board.REVEALED_BIT);
+        stack[size++] = index;
+        while(size > 0){
+            long current = stack[--size];
+            if((bits(current) & Board.COUNT_MASK) != 0){
+                continue;
+            }
+            int r = (int)(current / cols);
+            int c = (int)(current % cols);
+            for(int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++){
+                for(int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++){
+                    long next = (long)nr * cols + nc;
+                    int nextBits = bits(next);
+                    //A zero cell has no mines around it, so every neighbour is safe.
+                    if((nextBits & Board.REVEALED_BIT) == 0){
+                        setBits(next, nextBits | Board.REVEALED_BIT);
+                        count++;
+                        if(size == stack.length){
+                            stack = Arrays.copyOf(stack, size * 2);
+                        }
+                        stack[size++] = next;
+                    }
+                }
+            }
+        }
+        revealedCount += count;
+        coveredSafeCount -= count;
+        return count;
+    }
+
+    /**
+     * Counts the cells with a bit set, a row per task on the common pool.
+     * @param bit one of the Board bits, such as Board.MINE_BIT.
+     * @return how many cells have it.
+     */
+    long countBit(int bit){
+        return IntStream.range(0, rows).parallel().mapToLong(r -> {
+            long count = 0;
+            for(long i = (long)r * cols, end = i + cols; i < end; i++){
+                if((bits(i) & bit) != 0){
+                    count++;
+                }
+            }
+            return count;
+        }).sum();
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Testing Class to represent an OffHeapBoard.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+@Testable
+public class OffHeapBoardTest {
+
+    private static int minesAround(OffHeapBoard board, int r, int c){
+        int mines = 0;
+        for(int dr = -1; dr <= 1; dr++){
+            for(int dc = -1; dc <= 1; dc++){
+                long n = board.indexAt(r + dr, c + dc);
+                if((dr != 0 || dc != 0) && n >= 0 && board.isMine(n)){
+                    mines++;
+                }
+            }
+        }
+        return mines;
+    }
+
+    @Test
+    public void testCountsAcrossChunks(){
+        //Chunks of 16 cells, so rows of 13 keep crossing them, and more than one band of rows.
+        OffHeapBoard board = new OffHeapBoard(150, 13, 400, new SplittableRandom(3), 4);
+        board.makeBoard();
+
+        assertEquals(400, board.countBit(Board.MINE_BIT));
+        assertEquals(150 * 13 - 400, board.getCoveredSafeCount());
+        for(int r = 0; r < 150; r++){
+            for(int c = 0; c < 13; c++){
+                assertEquals(minesAround(board, r, c), board.getAdjacentMines(board.indexAt(r, c)), r + "," + c);
+            }
+        }
+    }
+
+    @Test
+    public void testRevealFrom(){
+        OffHeapBoard board = new OffHeapBoard(20, 20, 40, new SplittableRandom(5), 6);
+        board.makeBoard();
+        long start = 0;
+        while(board.isMine(start) || board.getAdjacentMines(start) != 0){
+            start++;
+        }
+
+        long uncovered = board.revealFrom(start);
+        assertTrue(uncovered > 1);
+        assertEquals(uncovered, board.getRevealedCount());
+        assertEquals(uncovered, board.countBit(Board.REVEALED_BIT));
+        assertEquals(400 - 40 - uncovered, board.getCoveredSafeCount());
+        assertEquals(0, board.revealFrom(start));
+        //The opening is closed: no mine is uncovered and every uncovered zero has only uncovered neighbours.
+        for(int r = 0; r < 20; r++){
+            for(int c = 0; c < 20; c++){
+                long index = board.indexAt(r, c);
+                if(!board.isRevealed(index)){
+                    continue;
+                }
+                assertFalse(board.isMine(index));
+                for(int dr = -1; dr <= 1 && board.getAdjacentMines(index) == 0; dr++){
+                    for(int dc = -1; dc <= 1; dc++){
+                        long n = board.indexAt(r + dr, c + dc);
+                        assertTrue(n < 0 || board.isRevealed(n));
+                    }
+                }
+            }
+        }
+
+        long mine = 0;
+        while(!board.isMine(mine)){
+            mine++;
+        }
+        assertEquals(-1, board.revealFrom(mine));
+    }
+
+    @Test
+    public void testFlagsAndClose(){
+        OffHeapBoard board = new OffHeapBoard(3, 4, 0.25, new SplittableRandom(1));
+        board.makeBoard();
+        assertEquals(3, board.getMineCount());
+
+        board.setFlagged(5, true);
+        assertTrue(board.isFlagged(5));
+        board.setFlagged(5, false);
+        assertFalse(board.isFlagged(5));
+
+        board.close();
+        assertThrows(IllegalStateException.class, () -> board.isMine(0));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapBoard(2, 2, 5, new SplittableRandom(1)));
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Class to represent a PlayerView, what a player can see of a game.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+/**
+ * Class to represent a PlayerView: a read-only snapshot of what a player can see of a game.
+ * That is which cells are covered, the numbers on the uncovered ones, the player's flags and
+ * how many mines there are, and nothing about where the mines are. Solvers which only read a
+ * PlayerView can't cheat.
+ *
+ * A view never changes once made. It keeps a copy-on-write snapshot of the board's packed
+ * cells and the game's journal of uncovered cells, so making one costs a flag per block of
+ * the board, and any number of threads can read the same view while the game goes on.
+ * Get one with Minesweeper.getPlayerView(), which hands out the same view until something
+ * visible changes. Engines which follow a game on its own thread get a live view from
+ * Minesweeper.getLiveView() instead, which reads the game's own board rather than a copy and
+ * is only good until the game next changes. getVersion() tells views of one game apart; getStateHash() is equal for
+ * any two positions with the same cells uncovered, so results can be cached by it.
+ */
+public final class PlayerView {
+
+    private final Board board;
+    private final boolean made;
+    private final int rows;
+    private final int cols;
+    private final int mineCount;
+    private final int flagCount;
+    private final int coveredCount;
+    private final long version;
+    private final long stateHash;
+
+    //The game's journal of uncovered cells. The game never writes below journalSize again
+    //once a view has seen it, so the first journalSize entries are fixed.
+    private final int[] journal;
+    private final int journalSize;
+    private final int journalGeneration;
+
+    /**
+     * Constructor which snapshots what the player can see. Only made by Minesweeper.
+     * @param snapshot false to read the game's own board instead of a copy of it, for a view
+     *  which is only read until the game next changes, see Minesweeper.getLiveView().
+     */
+    PlayerView(Board board, int mineCount, int flagCount, long version, long stateHash,
+            int[] journal, int journalSize, int journalGeneration, boolean snapshot){
+        this.made = board.isRealLocation(0, 0);
+        this.board = made && snapshot ? new Board(board) : board;
+        this.rows = board.getRows();
+        this.cols = board.getCols();
+        this.mineCount = mineCount;
+        this.flagCount = flagCount;
+        this.coveredCount = rows * cols - (made ? board.getRevealedCount() : 0);
+        this.version = version;
+        this.stateHash = stateHash;
+        this.journal = journal;
+        this.journalSize = journalSize;
+        this.journalGeneration = journalGeneration;
+    }
+
+    //------------- Board shape --------------//
+
+    public int getRows(){
+        return rows;
+    }
+
+    public int getCols(){
+        return cols;
+    }
+
+    public int getTotalCells(){
+        return rows * cols;
+    }
+
+    public int indexOf(int row, int col){
+        return row * cols + col;
+    }
+
+    public Location locationOf(int index){
+        return new Location(index / cols, index % cols);
+    }
+
+    /**
+     * @param location the location to check.
+     * @return whether the location is on the board.
+     */
+    public boolean contains(Location location){
+        return location.getRow() >= 0 && location.getRow() < rows && location.getCol() >= 0 && location.getCol() < cols;
+    }
+
+    /**
+     * Writes the indices of the cells around a cell, see Board.neighbors().
+     * @param index index of the cell.
+     * @param out room for at least 8 indices.
+     * @return how many neighbours were written.
+     */
+    public int neighbors(int index, int[] out){
+        return board.neighbors(index, out);
+    }
+
+    //------------- What is showing --------------//
+
+    public boolean isCovered(int index){
+        return !made || !board.isRevealed(index);
+    }
+
+    public boolean isFlagged(int index){
+        return made && board.isFlagged(index);
+    }
+
+    /**
+     * @param index index of the cell.
+     * @return the number on an uncovered cell, or -1 if it is covered.
+     */
+    public int getNumber(int index){
+        return isCovered(index) ? -1 : board.getAdjacentMines(index);
+    }
+
+    /**
+     * @return how many mines the whole board holds.
+     */
+    public int getMineCount(){
+        return mineCount;
+    }
+
+    public int getFlagCount(){
+        return flagCount;
+    }
+
+    /**
+     * @return the mine count less the flags, the number a mine counter shows.
+     */
+    public int getRemainingMines(){
+        return mineCount - flagCount;
+    }
+
+    public int getCoveredCount(){
+        return coveredCount;
+    }
+
+    /**
+     * @return a stamp which is different for every change a game makes to what is showing.
+     */
+    public long getVersion(){
+        return version;
+    }
+
+    /**
+     * @return the Zobrist hash of the uncovered cells, see Minesweeper.getStateHash().
+     */
+    public long getStateHash(){
+        return stateHash;
+    }
+
+    //------------- Journal --------------//
+
+    /**
+     * @return how many cells were uncovered through selections, in order.
+     */
+    int getJournalSize(){
+        return journalSize;
+    }
+
+    int getJournalEntry(int i){
+        return journal[i];
+    }
+
+    /**
+     * @return a number which changes whenever selections were undone.
+     */
+    int getJournalGeneration(){
+        return journalGeneration;
+    }
+}
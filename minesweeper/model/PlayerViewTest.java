@@ -0,0 +1,130 @@
+/**
+ * Testing Class to represent a PlayerView.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+@Testable
+public class PlayerViewTest {
+
+    private static int firstSafe(Board board){
+        for(int i = 0; i < board.getRows() * board.getCols(); i++){
+            if(!board.isMine(i)){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    public void testSameViewUntilSomethingChanges() throws MinesweeperException{
+        Board board = new Board(10, 10, 10, new SplittableRandom(1));
+        Minesweeper game = new Minesweeper(10, 10, board);
+        board.makeBoard();
+
+        PlayerView before = game.getPlayerView();
+        assertTrue(before == game.getPlayerView());
+        assertEquals(100, before.getCoveredCount());
+
+        game.makeSelection(board.locationOf(firstSafe(board)));
+        PlayerView after = game.getPlayerView();
+
+        assertTrue(before != after);
+        assertTrue(after.getVersion() != before.getVersion());
+        assertEquals(100 - game.getBoard().getRevealedCount(), after.getCoveredCount());
+    }
+
+    @Test
+    public void testViewDoesNotChangeWithTheGame() throws MinesweeperException{
+        Board board = new Board(10, 10, 10, new SplittableRandom(2));
+        Minesweeper game = new Minesweeper(10, 10, board);
+        board.makeBoard();
+        int first = firstSafe(board);
+
+        PlayerView before = game.getPlayerView();
+        List<Location> opened = game.makeSelection(board.locationOf(first));
+        PlayerView after = game.getPlayerView();
+
+        assertTrue(before.isCovered(first));
+        assertEquals(-1, before.getNumber(first));
+        assertFalse(after.isCovered(first));
+        assertEquals(board.getAdjacentMines(first), after.getNumber(first));
+        assertEquals(opened.size(), after.getJournalSize());
+        assertEquals(after.getStateHash(), game.getStateHash());
+    }
+
+    @Test
+    public void testJournalSurvivesUndo() throws MinesweeperException{
+        Board board = new Board(10, 10, 10, new SplittableRandom(3));
+        Minesweeper game = new Minesweeper(10, 10, board);
+        board.makeBoard();
+        game.makeSelection(board.locationOf(firstSafe(board)));
+        PlayerView view = game.getPlayerView();
+        int size = view.getJournalSize();
+        int first = view.getJournalEntry(0);
+
+        game.undoSelection();
+        for(int i = board.getRows() * board.getCols() - 1; i >= 0; i--){
+            if(!board.isMine(i) && i != first){
+                game.makeSelection(board.locationOf(i));
+                break;
+            }
+        }
+
+        assertEquals(size, view.getJournalSize());
+        assertEquals(first, view.getJournalEntry(0));
+        assertTrue(view.getJournalGeneration() != game.getPlayerView().getJournalGeneration());
+    }
+
+    @Test
+    public void testFlags() throws MinesweeperException{
+        Board board = new Board(5, 5, 3, new SplittableRandom(4));
+        Minesweeper game = new Minesweeper(5, 5, board);
+        board.makeBoard();
+
+        assertTrue(game.toggleFlag(new Location(2, 2)));
+        PlayerView flagged = game.getPlayerView();
+        assertFalse(game.toggleFlag(new Location(2, 2)));
+
+        assertTrue(flagged.isFlagged(board.indexOf(2, 2)));
+        assertEquals(2, flagged.getRemainingMines());
+        assertFalse(game.getPlayerView().isFlagged(board.indexOf(2, 2)));
+        assertEquals(3, game.getPlayerView().getRemainingMines());
+    }
+
+    @Test
+    public void testEnginesOnAFixedView() throws MinesweeperException{
+        Board board = new Board(16, 30, 99, new SplittableRandom(5));
+        Minesweeper game = new Minesweeper(16, 30, board);
+        board.makeBoard();
+        for(int i = 0; i < 16 * 30; i++){
+            if(!board.isMine(i) && board.getAdjacentMines(i) == 0){
+                game.makeSelection(board.locationOf(i));
+                break;
+            }
+        }
+        PlayerView view = game.getPlayerView();
+        DeductionEngine fixed = new DeductionEngine(view);
+        int expected = new DeductionEngine(game).getSafeCells().size();
+
+        //Playing on doesn't move an engine which was given a view.
+        for(Location location : new DeductionEngine(game).getSafeCells()){
+            game.makeSelection(location);
+        }
+
+        assertEquals(expected, fixed.getSafeCells().size());
+    }
+}
@@ -0,0 +1,688 @@
+/**
+ * Class to represent a ProbabilityEngine which works out how likely each covered cell is to be a mine.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class to represent a ProbabilityEngine which works out the exact chance of every covered
+ * cell being a mine, so that when nothing is certain the least risky guess can be picked.
+ * Like the DeductionEngine it only reads the game's PlayerView: the numbers and the mine count.
+ *
+ * Covered cells next to a number (the frontier) are grouped by which numbers they touch,
+ * since cells touching the same numbers are interchangeable. Groups linked by a shared
+ * number form a component, and each component's mine counts are enumerated on their own,
+ * cutting a branch as soon as some number can no longer be met. The components are then
+ * combined, with every frontier mine count weighted by the number of ways the leftover
+ * mines fit in the cells away from the frontier.
+ */
+public class ProbabilityEngine {
+
+    //Search steps between looks at the clock. A step is a few array updates, so this is
+    //a few microseconds.
+    private static final int CLOCK_INTERVAL = 256;
+
+    //Chances closer than this count as a tie. They are sums of products of doubles, so the
+    //same chance worked out two ways can differ in the last bits.
+    private static final double TIE = 1e-9;
+
+    //ways[n][k] is n choose k, groups never hold more than 8 cells.
+    private static final double[][] WAYS = new double[9][9];
+
+    static {
+        for(int n = 0; n <= 8; n++){
+            WAYS[n][0] = 1;
+            for(int k = 1; k <= n; k++){
+                WAYS[n][k] = WAYS[n - 1][k - 1] + WAYS[n - 1][k];
+            }
+        }
+    }
+
+    //The game to follow, or null if the engine was given a single view.
+    private final Minesweeper game;
+    private PlayerView view;
+    private final int[] scratch = new int[8];
+
+    private long nodeLimit = Long.MAX_VALUE;
+    private long nodes;
+    //System.nanoTime() at which to stop searching, read every CLOCK_INTERVAL steps.
+    private long deadline = Long.MAX_VALUE;
+
+    //The view the results were worked out from.
+    private PlayerView computedFrom;
+
+    //Frontier cells in ascending order and their chance of being a mine.
+    private int[] frontier = new int[0];
+    private double[] probability = new double[0];
+    //Chance of a mine for every covered cell off the frontier.
+    private double interiorProbability;
+    private int coveredCount;
+    private int componentCount;
+    private boolean exact;
+
+    /**
+     * Constructor which attaches the engine to a game.
+     * @param game the game to follow.
+     */
+    public ProbabilityEngine(Minesweeper game){
+        this.game = game;
+        this.view = game.getPlayerView();
+    }
+
+    /**
+     * Constructor which works on one fixed view, for example on another thread while the
+     * game goes on.
+     * @param view what the player can see.
+     */
+    public ProbabilityEngine(PlayerView view){
+        this.game = null;
+        this.view = view;
+    }
+
+    /**
+     * Caps how many search steps one component may take. A component which runs over is
+     * treated like cells away from the frontier and the answer is no longer exact.
+     * @param nodeLimit the maximum number of steps per component.
+     */
+    public void setNodeLimit(long nodeLimit){
+        this.nodeLimit = nodeLimit;
+        this.computedFrom = null;
+    }
+
+    /**
+     * Stops searching at a point in time. A component still being searched then, and every
+     * one after it, is treated as if it ran over the node limit.
+     * @param nanoTime the System.nanoTime() to stop at.
+     */
+    public void setDeadline(long nanoTime){
+        this.deadline = nanoTime;
+        this.computedFrom = null;
+    }
+
+    //------------- Queries --------------//
+
+    /**
+     * Gets the chance that a cell is a mine.
+     * @param location the location to check.
+     * @return a probability between 0 and 1, or 0 if the cell is uncovered or doesn't exist.
+     */
+    public double getMineProbability(Location location){
+        update();
+        if(!view.contains(location)){
+            return 0;
+        }
+        return probabilityOf(view.indexOf(location.getRow(), location.getCol()));
+    }
+
+    /**
+     * Gets the covered cell least likely to be a mine.
+     * @return the safest location, or null if every cell is uncovered.
+     */
+    public Location getSafestCell(){
+        update();
+        int best = -1;
+        double bestProbability = 2;
+        for(int i = 0; i < frontier.length; i++){
+            if(probability[i] < bestProbability){
+                bestProbability = probability[i];
+                best = frontier[i];
+            }
+        }
+        if(coveredCount > frontier.length && interiorProbability < bestProbability){
+            best = firstInteriorCell();
+        }
+        return best == -1 ? null : view.locationOf(best);
+    }
+
+    /**
+     * Gets every covered cell tied for least likely to be a mine, in board order. Cells off
+     * the frontier all have the same chance and nothing the player can see tells them apart,
+     * so if they are among the safest only the first of them is listed.
+     * @return the safest locations, empty if every cell is uncovered.
+     */
+    public List<Location> getSafestCells(){
+        update();
+        double bestProbability = coveredCount > frontier.length ? interiorProbability : 2;
+        for(double p : probability){
+            bestProbability = Math.min(bestProbability, p);
+        }
+        List<Location> locations = new ArrayList<>();
+        int interior = coveredCount > frontier.length && interiorProbability <= bestProbability + TIE ? firstInteriorCell() : -1;
+        for(int i = 0; i < frontier.length; i++){
+            if(interior >= 0 && interior < frontier[i]){
+                locations.add(view.locationOf(interior));
+                interior = -1;
+            }
+            if(probability[i] <= bestProbability + TIE){
+                locations.add(view.locationOf(frontier[i]));
+            }
+        }
+        if(interior >= 0){
+            locations.add(view.locationOf(interior));
+        }
+        return locations;
+    }
+
+    /**
+     * @return the first covered cell in board order which isn't on the frontier, -1 if none.
+     */
+    private int firstInteriorCell(){
+        int total = view.getTotalCells();
+        for(int i = 0; i < total; i++){
+            if(view.isCovered(i) && Arrays.binarySearch(frontier, i) < 0){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the covered cells next to an uncovered number.
+     */
+    public List<Location> getFrontier(){
+        update();
+        List<Location> locations = new ArrayList<>(frontier.length);
+        for(int index : frontier){
+            locations.add(view.locationOf(index));
+        }
+        return locations;
+    }
+
+    /**
+     * @return the chance of a mine in any covered cell away from the frontier.
+     */
+    public double getInteriorProbability(){
+        update();
+        return interiorProbability;
+    }
+
+    /**
+     * @return how many independent components the frontier split into.
+     */
+    public int getComponentCount(){
+        update();
+        return componentCount;
+    }
+
+    /**
+     * @return false if some component ran over the node limit or the deadline.
+     */
+    public boolean isExact(){
+        update();
+        return exact;
+    }
+
+    /**
+     * @param index index of the cell.
+     * @return the chance the cell is a mine, 0 if it is uncovered.
+     */
+    double probabilityOf(int index){
+        if(!view.isCovered(index)){
+            return 0;
+        }
+        int slot = Arrays.binarySearch(frontier, index);
+        return slot >= 0 ? probability[slot] : interiorProbability;
+    }
+
+    //------------- Building the constraints --------------//
+
+    /**
+     * Recomputes the probabilities if a selection was made or undone since the last time.
+     */
+    public void update(){
+        if(game != null){
+            view = game.getLiveView();
+        }
+        //Views of one game have different versions, and a fixed view keeps its own.
+        if(computedFrom != null && computedFrom.getVersion() == view.getVersion()){
+            return;
+        }
+        compute();
+        computedFrom = view;
+    }
+
+    private void compute(){
+        int total = view.getTotalCells();
+
+        //Every uncovered cell with a covered neighbour is a constraint on those neighbours.
+        //Frontier cells get a slot in the order they are first seen.
+        List<Integer> frontierCells = new ArrayList<>();
+        Map<Integer, Integer> slotOf = new HashMap<>();
+        List<int[]> constraintCells = new ArrayList<>();
+        List<Integer> constraintValue = new ArrayList<>();
+        coveredCount = 0;
+        for(int i = 0; i < total; i++){
+            if(view.isCovered(i)){
+                coveredCount++;
+                continue;
+            }
+            int count = view.neighbors(i, scratch);
+            int[] cells = new int[count];
+            int size = 0;
+            for(int n = 0; n < count; n++){
+                if(view.isCovered(scratch[n])){
+                    Integer slot = slotOf.get(scratch[n]);
+                    if(slot == null){
+                        slot = frontierCells.size();
+                        slotOf.put(scratch[n], slot);
+                        frontierCells.add(scratch[n]);
+                    }
+                    cells[size++] = slot;
+                }
+            }
+            if(size > 0){
+                constraintCells.add(Arrays.copyOf(cells, size));
+                constraintValue.add(view.getNumber(i));
+            }
+        }
+
+        int cellCount = frontierCells.size();
+        int constraintCount = constraintCells.size();
+
+        //Which constraints each frontier cell is in, in ascending order.
+        int[][] cellConstraints = new int[cellCount][];
+        int[] degree = new int[cellCount];
+        for(int[] cells : constraintCells){
+            for(int slot : cells){
+                degree[slot]++;
+            }
+        }
+        for(int s = 0; s < cellCount; s++){
+            cellConstraints[s] = new int[degree[s]];
+            degree[s] = 0;
+        }
+        for(int c = 0; c < constraintCount; c++){
+            for(int slot : constraintCells.get(c)){
+                cellConstraints[slot][degree[slot]++] = c;
+            }
+        }
+
+        //Cells in exactly the same constraints form a group.
+        Integer[] bySignature = new Integer[cellCount];
+        for(int s = 0; s < cellCount; s++){
+            bySignature[s] = s;
+        }
+        Arrays.sort(bySignature, (a, b) -> Arrays.compare(cellConstraints[a], cellConstraints[b]));
+        int[] groupOf = new int[cellCount];
+        List<int[]> groupCells = new ArrayList<>();
+        for(int start = 0; start < cellCount;){
+            int end = start + 1;
+            while(end < cellCount && Arrays.equals(cellConstraints[bySignature[start]], cellConstraints[bySignature[end]])){
+                end++;
+            }
+            int[] cells = new int[end - start];
+            for(int s = start; s < end; s++){
+                cells[s - start] = bySignature[s];
+                groupOf[bySignature[s]] = groupCells.size();
+            }
+            groupCells.add(cells);
+            start = end;
+        }
+        int groupCount = groupCells.size();
+
+        //The groups in each constraint, and components joined through shared constraints.
+        int[][] constraintGroups = new int[constraintCount][];
+        int[] parent = new int[groupCount];
+        for(int g = 0; g < groupCount; g++){
+            parent[g] = g;
+        }
+        for(int c = 0; c < constraintCount; c++){
+            int[] cells = constraintCells.get(c);
+            int[] groups = new int[cells.length];
+            int size = 0;
+            for(int slot : cells){
+                int g = groupOf[slot];
+                boolean seen = false;
+                for(int k = 0; k < size; k++){
+                    if(groups[k] == g){
+                        seen = true;
+                        break;
+                    }
+                }
+                if(!seen){
+                    groups[size++] = g;
+                }
+            }
+            constraintGroups[c] = Arrays.copyOf(groups, size);
+            for(int k = 1; k < size; k++){
+                union(parent, groups[0], groups[k]);
+            }
+        }
+
+        List<List<Integer>> components = new ArrayList<>();
+        int[] componentOf = new int[groupCount];
+        Arrays.fill(componentOf, -1);
+        for(int g = 0; g < groupCount; g++){
+            int root = find(parent, g);
+            if(componentOf[root] == -1){
+                componentOf[root] = components.size();
+                components.add(new ArrayList<>());
+            }
+            components.get(componentOf[root]).add(g);
+        }
+        componentCount = components.size();
+
+        //------------- Enumerating each component --------------//
+
+        exact = true;
+        List<Component> solved = new ArrayList<>();
+        int unconstrained = coveredCount - cellCount;
+        for(List<Integer> groups : components){
+            Component component = new Component(groups, groupCells, cellConstraints, constraintGroups, constraintValue);
+            if(component.enumerate()){
+                solved.add(component);
+            } else {
+                exact = false;
+                for(int g : groups){
+                    unconstrained += groupCells.get(g).length;
+                }
+            }
+        }
+
+        //------------- Combining the components --------------//
+
+        int mines = view.getMineCount();
+        int maxFrontierMines = 0;
+        for(Component component : solved){
+            maxFrontierMines += component.cells;
+        }
+
+        //weight[m] is proportional to the ways to put the other mines - m mines off the frontier.
+        double[] weight = leftoverWeights(maxFrontierMines, unconstrained, mines);
+
+        //prefix[c] is the spread of mines over components 0..c-1, after[c] is the weight
+        //of a mine count m once components c.. are added on top of it.
+        int k = solved.size();
+        double[][] prefix = new double[k + 1][];
+        prefix[0] = new double[]{1};
+        for(int c = 0; c < k; c++){
+            prefix[c + 1] = convolve(prefix[c], solved.get(c).ways);
+        }
+        double[][] after = new double[k + 1][];
+        after[k] = weight;
+        for(int c = k - 1; c >= 0; c--){
+            double[] ways = solved.get(c).ways;
+            double[] next = after[c + 1];
+            double[] current = new double[next.length];
+            for(int t = 0; t < current.length; t++){
+                double sum = 0;
+                for(int b = 0; b < ways.length && t + b < next.length; b++){
+                    sum += ways[b] * next[t + b];
+                }
+                current[t] = sum;
+            }
+            after[c] = current;
+        }
+
+        double totalWeight = 0;
+        double interiorMines = 0;
+        double[] all = prefix[k];
+        for(int m = 0; m < all.length && m < weight.length; m++){
+            totalWeight += all[m] * weight[m];
+            if(unconstrained > 0){
+                interiorMines += all[m] * weight[m] * (mines - m);
+            }
+        }
+
+        frontier = new int[cellCount];
+        double[] bySlot = new double[cellCount];
+        Arrays.fill(bySlot, -1);
+        if(totalWeight > 0){
+            for(int c = 0; c < k; c++){
+                Component component = solved.get(c);
+                //back[j] is the total weight of every way the rest of the board holds
+                //m - j mines, given this component holds j.
+                double[] before = prefix[c];
+                double[] rest = after[c + 1];
+                double[] back = new double[component.ways.length];
+                for(int j = 0; j < back.length; j++){
+                    double sum = 0;
+                    for(int a = 0; a < before.length && a + j < rest.length; a++){
+                        sum += before[a] * rest[a + j];
+                    }
+                    back[j] = sum;
+                }
+                for(int g = 0; g < component.groups.length; g++){
+                    double expected = 0;
+                    double[] groupMines = component.groupMines[g];
+                    for(int j = 0; j < back.length; j++){
+                        expected += groupMines[j] * back[j];
+                    }
+                    int[] cells = groupCells.get(component.groups[g]);
+                    double p = expected / totalWeight / cells.length;
+                    for(int slot : cells){
+                        bySlot[slot] = p;
+                    }
+                }
+            }
+        }
+        interiorProbability = totalWeight > 0 && unconstrained > 0 ? interiorMines / totalWeight / unconstrained : 0;
+        for(int s = 0; s < cellCount; s++){
+            if(bySlot[s] < 0){
+                bySlot[s] = interiorProbability;
+            }
+        }
+
+        //Sort the frontier by index so lookups can binary search it.
+        Integer[] order = new Integer[cellCount];
+        for(int s = 0; s < cellCount; s++){
+            order[s] = s;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(frontierCells.get(a), frontierCells.get(b)));
+        probability = new double[cellCount];
+        for(int s = 0; s < cellCount; s++){
+            frontier[s] = frontierCells.get(order[s]);
+            probability[s] = bySlot[order[s]];
+        }
+    }
+
+    /**
+     * Works out, for every number of mines on the frontier, how many ways the rest of the
+     * mines fit in the cells away from it. Binomials that big don't fit in a double, so they
+     * are built up as logs relative to each other and scaled so the largest is 1.
+     * @param maxFrontierMines the most mines the frontier could hold.
+     * @param cells covered cells away from the frontier.
+     * @param mines mines on the whole view.
+     * @return weight[m] proportional to cells choose (mines - m).
+     */
+    private static double[] leftoverWeights(int maxFrontierMines, int cells, int mines){
+        double[] weight = new double[maxFrontierMines + 1];
+        int low = Math.max(0, mines - cells);
+        int high = Math.min(maxFrontierMines, mines);
+        if(low > high){
+            return weight;
+        }
+        double[] log = new double[high + 1];
+        double max = 0;
+        for(int m = low + 1; m <= high; m++){
+            //C(cells, r - 1) / C(cells, r) = r / (cells - r + 1) with r = mines - m + 1.
+            int r = mines - m + 1;
+            log[m] = log[m - 1] + Math.log((double)r / (cells - r + 1));
+            max = Math.max(max, log[m]);
+        }
+        for(int m = low; m <= high; m++){
+            weight[m] = Math.exp(log[m] - max);
+        }
+        return weight;
+    }
+
+    private static double[] convolve(double[] a, double[] b){
+        double[] result = new double[a.length + b.length - 1];
+        for(int i = 0; i < a.length; i++){
+            if(a[i] == 0){
+                continue;
+            }
+            for(int j = 0; j < b.length; j++){
+                result[i + j] += a[i] * b[j];
+            }
+        }
+        return result;
+    }
+
+    private static int find(int[] parent, int g){
+        while(parent[g] != g){
+            parent[g] = parent[parent[g]];
+            g = parent[g];
+        }
+        return g;
+    }
+
+    private static void union(int[] parent, int a, int b){
+        parent[find(parent, a)] = find(parent, b);
+    }
+
+    /**
+     * One independent part of the frontier and the result of enumerating it.
+     */
+    private class Component {
+        //Global group ids in search order, and per search position their size and constraints.
+        final int[] groups;
+        final int[] size;
+        final int[][] constraints;
+        final int[] need;
+        final int[] room;
+        final int cells;
+
+        //ways[m] is the share of consistent assignments with m mines in the component, and
+        //groupMines[g][m] the share of mines group g holds across those assignments.
+        double[] ways;
+        double[][] groupMines;
+
+        private final int[] value;
+        private boolean aborted;
+
+        Component(List<Integer> members, List<int[]> groupCells, int[][] cellConstraints, int[][] constraintGroups, List<Integer> constraintValue){
+            //Breadth first from the first group, so each number's groups are close together
+            //in the order and a number is closed off soon after it is first touched.
+            int n = members.size();
+            groups = new int[n];
+            Map<Integer, Integer> position = new HashMap<>();
+            Map<Integer, Integer> localConstraint = new HashMap<>();
+            groups[0] = members.get(0);
+            position.put(groups[0], 0);
+            int placed = 1;
+            for(int head = 0; head < placed; head++){
+                int[] touched = cellConstraints[groupCells.get(groups[head])[0]];
+                for(int c : touched){
+                    if(!localConstraint.containsKey(c)){
+                        localConstraint.put(c, localConstraint.size());
+                    }
+                    for(int g : constraintGroups[c]){
+                        if(!position.containsKey(g)){
+                            position.put(g, placed);
+                            groups[placed++] = g;
+                        }
+                    }
+                }
+            }
+
+            int constraintCount = localConstraint.size();
+            need = new int[constraintCount];
+            room = new int[constraintCount];
+            size = new int[n];
+            constraints = new int[n][];
+            value = new int[n];
+            int total = 0;
+            for(int i = 0; i < n; i++){
+                int[] cellsOf = groupCells.get(groups[i]);
+                size[i] = cellsOf.length;
+                total += size[i];
+                int[] touched = cellConstraints[cellsOf[0]];
+                constraints[i] = new int[touched.length];
+                for(int t = 0; t < touched.length; t++){
+                    int local = localConstraint.get(touched[t]);
+                    constraints[i][t] = local;
+                    need[local] = constraintValue.get(touched[t]);
+                    room[local] += size[i];
+                }
+            }
+            cells = total;
+        }
+
+        /**
+         * Enumerates every consistent way to fill the component.
+         * @return false if the node limit was hit.
+         */
+        boolean enumerate(){
+            ways = new double[cells + 1];
+            groupMines = new double[groups.length][cells + 1];
+            nodes = 0;
+            aborted = false;
+            search(0, 0, 1);
+            if(aborted){
+                return false;
+            }
+
+            //Only the shape matters, so scale to a total of 1 to keep the numbers small.
+            double sum = 0;
+            for(double w : ways){
+                sum += w;
+            }
+            if(sum > 0){
+                for(int m = 0; m <= cells; m++){
+                    ways[m] /= sum;
+                    for(double[] mines : groupMines){
+                        mines[m] /= sum;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private void search(int depth, int mines, double weight){
+            if(aborted){
+                return;
+            }
+            //Looks at the clock on the first step too, so components after the deadline stop at once.
+            if(++nodes > nodeLimit || deadline != Long.MAX_VALUE && nodes % CLOCK_INTERVAL == 1 && System.nanoTime() - deadline > 0){
+                aborted = true;
+                return;
+            }
+            if(depth == groups.length){
+                ways[mines] += weight;
+                for(int i = 0; i < groups.length; i++){
+                    groupMines[i][mines] += weight * value[i];
+                }
+                return;
+            }
+
+            //Each number bounds how many mines this group can take: no more than it still
+            //needs, and enough that the groups after this one can make up the rest.
+            int n = size[depth];
+            int low = 0;
+            int high = n;
+            for(int c : constraints[depth]){
+                low = Math.max(low, need[c] - (room[c] - n));
+                high = Math.min(high, need[c]);
+            }
+            if(low > high){
+                return;
+            }
+
+            for(int c : constraints[depth]){
+                need[c] -= low;
+                room[c] -= n;
+            }
+            for(int v = low; v <= high; v++){
+                value[depth] = v;
+                search(depth + 1, mines + v, weight * WAYS[n][v]);
+                for(int c : constraints[depth]){
+                    need[c]--;
+                }
+            }
+            for(int c : constraints[depth]){
+                need[c] += high + 1;
+                room[c] += n;
+            }
+        }
+    }
+}
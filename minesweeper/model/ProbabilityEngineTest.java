@@ -0,0 +1,189 @@
+/**
+ * Testing Class to represent a ProbabilityEngine.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+@Testable
+public class ProbabilityEngineTest {
+
+    @Test
+    public void testUntouchedBoardIsUniform(){
+        Board board = new Board(8, 8, 10, new SplittableRandom(1));
+        Minesweeper game = new Minesweeper(8, 8, board);
+        board.makeBoard();
+        ProbabilityEngine engine = new ProbabilityEngine(game);
+
+        assertEquals(10.0 / 64, engine.getMineProbability(new Location(3, 3)), 1e-12);
+        assertEquals(0, engine.getFrontier().size());
+    }
+
+    @Test
+    public void testCertainCellsAreZeroAndOne() throws MinesweeperException{
+        //Same layout as the pair rule test: the mine has to be above the middle 1.
+        Board board = new Board(3, 3, 0, new SplittableRandom(1));
+        Minesweeper game = new Minesweeper(3, 3, 1, board);
+        board.makeBoard();
+        board.setType(board.indexOf(0, 1), CellType.BOMB_UNCHECKED);
+        game.makeSelection(new Location(2, 0));
+
+        ProbabilityEngine engine = new ProbabilityEngine(game);
+
+        assertEquals(1.0, engine.getMineProbability(new Location(0, 1)), 1e-12);
+        assertEquals(0.0, engine.getMineProbability(new Location(0, 0)), 1e-12);
+        assertEquals(0.0, engine.getMineProbability(new Location(0, 2)), 1e-12);
+        assertTrue(engine.isExact());
+    }
+
+    @Test
+    public void testMatchesBruteForce() throws MinesweeperException{
+        for(int seed = 0; seed < 40; seed++){
+            int rows = 4;
+            int cols = 5;
+            int mines = 4 + seed % 4;
+            Board board = new Board(rows, cols, mines, new SplittableRandom(seed));
+            Minesweeper game = new Minesweeper(rows, cols, board);
+            board.makeBoard();
+            SplittableRandom random = new SplittableRandom(seed + 100);
+            for(int pick = 0; pick < 2; pick++){
+                int index = random.nextInt(rows * cols);
+                if(!board.isMine(index) && !board.isRevealed(index)){
+                    game.makeSelection(board.locationOf(index));
+                }
+            }
+
+            //Count every way to place the mines in the covered cells which fits the numbers.
+            List<Integer> covered = new ArrayList<>();
+            for(int i = 0; i < rows * cols; i++){
+                if(!board.isRevealed(i)){
+                    covered.add(i);
+                }
+            }
+            double[] mineCount = new double[rows * cols];
+            double layouts = 0;
+            int[] adjacent = new int[8];
+            for(int mask = 0; mask < 1 << covered.size(); mask++){
+                if(Integer.bitCount(mask) != mines){
+                    continue;
+                }
+                boolean[] mine = new boolean[rows * cols];
+                for(int k = 0; k < covered.size(); k++){
+                    mine[covered.get(k)] = (mask >> k & 1) != 0;
+                }
+                boolean fits = true;
+                for(int i = 0; i < rows * cols && fits; i++){
+                    if(board.isRevealed(i)){
+                        int around = 0;
+                        int count = board.neighbors(i, adjacent);
+                        for(int n = 0; n < count; n++){
+                            if(mine[adjacent[n]]){
+                                around++;
+                            }
+                        }
+                        fits = around == board.getAdjacentMines(i);
+                    }
+                }
+                if(fits){
+                    layouts++;
+                    for(int i : covered){
+                        if(mine[i]){
+                            mineCount[i]++;
+                        }
+                    }
+                }
+            }
+
+            ProbabilityEngine engine = new ProbabilityEngine(game);
+            for(int i : covered){
+                assertEquals(mineCount[i] / layouts, engine.getMineProbability(board.locationOf(i)), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testSafestCellIsCovered() throws MinesweeperException{
+        Board board = new Board(16, 30, 99, new SplittableRandom(3));
+        Minesweeper game = new Minesweeper(16, 30, board);
+        board.makeBoard();
+        game.makeSelection(board.locationOf(board.indexOf(8, 15)));
+        ProbabilityEngine engine = new ProbabilityEngine(game);
+
+        Location safest = engine.getSafestCell();
+
+        assertFalse(board.isRevealed(board.indexOf(safest.getRow(), safest.getCol())));
+    }
+
+    @Test
+    public void testSafestCellsListsTies() throws MinesweeperException{
+        Board board = new Board(16, 30, 99, new SplittableRandom(3));
+        Minesweeper game = new Minesweeper(16, 30, board);
+        board.makeBoard();
+        game.makeSelection(board.locationOf(board.indexOf(8, 15)));
+        ProbabilityEngine engine = new ProbabilityEngine(game);
+
+        List<Location> safest = engine.getSafestCells();
+
+        assertTrue(safest.contains(engine.getSafestCell()));
+        double least = engine.getMineProbability(safest.get(0));
+        int interior = 0;
+        for(Location location : safest){
+            assertEquals(least, engine.getMineProbability(location), 1e-9);
+            if(!engine.getFrontier().contains(location)){
+                interior++;
+            }
+        }
+        assertTrue(interior <= 1);
+    }
+
+    @Test
+    public void testNodeLimitFallsBack() throws MinesweeperException{
+        Board board = new Board(16, 30, 99, new SplittableRandom(5));
+        Minesweeper game = new Minesweeper(16, 30, board);
+        board.makeBoard();
+        for(int i = 0; i < 16 * 30; i++){
+            if(!board.isMine(i) && board.getAdjacentMines(i) == 0){
+                game.makeSelection(board.locationOf(i));
+                break;
+            }
+        }
+        ProbabilityEngine engine = new ProbabilityEngine(game);
+        engine.setNodeLimit(1);
+
+        assertFalse(engine.isExact());
+        assertEquals(engine.getInteriorProbability(), engine.getMineProbability(engine.getFrontier().get(0)), 1e-12);
+    }
+
+    @Test
+    public void testDeadlineFallsBack() throws MinesweeperException{
+        Board board = new Board(16, 30, 99, new SplittableRandom(5));
+        Minesweeper game = new Minesweeper(16, 30, board);
+        board.makeBoard();
+        for(int i = 0; i < 16 * 30; i++){
+            if(!board.isMine(i) && board.getAdjacentMines(i) == 0){
+                game.makeSelection(board.locationOf(i));
+                break;
+            }
+        }
+        ProbabilityEngine engine = new ProbabilityEngine(game);
+        assertTrue(engine.isExact());
+
+        //A deadline already gone stops every component on its first step.
+        engine.setDeadline(System.nanoTime() - 1);
+        assertFalse(engine.isExact());
+        assertEquals(engine.getInteriorProbability(), engine.getMineProbability(engine.getFrontier().get(0)), 1e-12);
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Enumeration to represent what a selection did.
+ * @author Jack
+ * @author Michael McI.
+ * @author Bibhash
+ */
+
+package minesweeper.model;
+
+/**
+ * Enumeration to represent what a selection did. Minesweeper.select() packs the outcome and
+ * the number of cells it uncovered into one int so nothing is allocated per selection; of()
+ * and revealedCount() unpack it.
+ */
+public enum SelectionOutcome {
+    REVEALED,     // Uncovered at least one cell, and the game goes on.
+    ALREADY_OPEN, // The cell was already uncovered, nothing changed.
+    MINE,         // The cell was a mine, game is lost.
+    WON,          // Uncovered the last safe cells.
+    INVALID,      // Not a cell on the board, the game never saw it.
+    GAME_OVER;    // The game was already won or lost, nothing changed.
+
+    private static final int OUTCOME_BITS = 3;
+    private static final int OUTCOME_MASK = (1 << OUTCOME_BITS) - 1;
+    private static final SelectionOutcome[] VALUES = values();
+
+    /**
+     * @param revealed how many cells were uncovered.
+     * @return this outcome and the count packed into an int.
+     */
+    int pack(int revealed){
+        return revealed << OUTCOME_BITS | ordinal();
+    }
+
+    /**
+     * @param result a value returned by Minesweeper.select().
+     * @return the outcome it holds.
+     */
+    public static SelectionOutcome of(int result){
+        return VALUES[result & OUTCOME_MASK];
+    }
+
+    /**
+     * @param result a value returned by Minesweeper.select().
+     * @return how many cells the selection uncovered.
+     */
+    public static int revealedCount(int result){
+        return result >>> OUTCOME_BITS;
+    }
+}
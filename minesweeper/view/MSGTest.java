@@ -7,11 +7,11 @@
 
 package minesweeper.view;
 
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 import backtracker.Backtracker;
 import backtracker.Configuration;
@@ -130,10 +130,9 @@ public class MSGTest {
             else if (commands[0].equals("hint")) {
                 // return a valid location that isn't a mine.
                 // System.out.println("Give " + (0, 2) + "a try.");
-                Collection<Location> hints = game.getPossibleSelections();
-                if (hints.iterator().hasNext()) {
-                    Location first = hints.iterator().next();
-                    System.out.println("Give " + first + " a try.");
+                int hint = gameBoard.randomCoveredSafeCell(ThreadLocalRandom.current());
+                if (hint >= 0) {
+                    System.out.println("Give " + gameBoard.locationOf(hint) + " a try.");
                 }
                 
                 else {
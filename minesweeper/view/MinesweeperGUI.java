@@ -7,11 +7,9 @@
 
 package minesweeper.view;
 
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
-import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
 
 import javafx.application.Application;
 import javafx.geometry.Insets;
@@ -36,10 +34,14 @@ import javafx.stage.Stage;
 import minesweeper.model.Board;
 import minesweeper.model.Cell;
 import minesweeper.model.CellType;
+import minesweeper.model.DeductionEngine;
 import minesweeper.model.GameState;
+import minesweeper.model.LinearDeductionEngine;
 import minesweeper.model.Location;
 import minesweeper.model.Minesweeper;
 import minesweeper.model.MinesweeperException;
+import minesweeper.model.MonteCarloEngine;
+import minesweeper.model.ProbabilityEngine;
 
 /**
  * Class to play a real game of Minesweeper using everything we wrote.
@@ -66,9 +68,17 @@ public class MinesweeperGUI extends Application {
 
     private Minesweeper game;
     private Board gameBoard;
+    private DeductionEngine engine;
+    private LinearDeductionEngine linear;
 
     private final int ROW_COUNT = 10;
     private final int COL_COUNT = 10;
+    //Hints enumerate a frontier component for up to this many steps before sampling instead.
+    private static final long HINT_NODE_LIMIT = 1_000_000;
+    //How long a guess may take, in milliseconds, working it out exactly and sampling together.
+    private static final long HINT_TIME_LIMIT = 200;
+    //Samples guesses, kept for every hint so its threads aren't started each time.
+    private static final ForkJoinPool HINT_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
     private Label movesLabel;
     private Label statusLabel;
     private GridPane grid;
@@ -80,6 +90,8 @@ public class MinesweeperGUI extends Application {
         gameBoard = new Board(ROW_COUNT, COL_COUNT);
         game = new Minesweeper(ROW_COUNT, COL_COUNT, gameBoard);
         gameBoard.makeBoard();
+        engine = new DeductionEngine(game);
+        linear = new LinearDeductionEngine(game);
 
         //Create VBOX - holds whole game
         VBox gameBox = new VBox();
@@ -113,25 +125,40 @@ public class MinesweeperGUI extends Application {
         hintButton.setStyle("-fx-font-size: 2em; ");
         hintButton.setPrefWidth(120);
 
-        ArrayList<Location> safeCells = (ArrayList<Location>) game.getPossibleSelections();
-
         //Implementing the event handler when "Hint" button is pressed
-        //Provides a hint to the user by highlighting a safe cell
+        //Provides a hint to the user by highlighting a cell the numbers prove is safe,
+        //or the one least likely to be a mine if there isn't one
         hintButton.setOnAction(value -> {
-            //System.out.println("GIVE HINT");
-            try{
-                if(safeCells.size() != 0){
-                    Location location = safeCells.remove(new Random().nextInt(safeCells.size()));
-
-                    while(gameBoard.getCellAtLocation(location).getType() == CellType.SAFE_CHECKED){
-                        location = safeCells.get(new Random().nextInt(safeCells.size()));
+            List<Location> safeCells = engine.getSafeCells();
+            if(safeCells.size() == 0){
+                safeCells = linear.getSafeCells();
+            }
+            Location location = null;
+            if(safeCells.size() != 0){
+                location = safeCells.get(0);
+            } else {
+                long deadline = System.nanoTime() + HINT_TIME_LIMIT * 1_000_000L;
+                ProbabilityEngine odds = new ProbabilityEngine(game);
+                odds.setNodeLimit(HINT_NODE_LIMIT);
+                odds.setDeadline(deadline);
+                location = odds.getSafestCell();
+                double risk = location == null ? 0 : odds.getMineProbability(location);
+                //Too big to work out exactly in time, sample it for the rest of the budget instead.
+                if(!odds.isExact()){
+                    MonteCarloEngine sampler = new MonteCarloEngine(game, HINT_POOL, new SplittableRandom());
+                    sampler.setTimeLimit(Math.max(0, (deadline - System.nanoTime()) / 1_000_000L));
+                    sampler.sample();
+                    if(sampler.getSafestCell() != null){
+                        location = sampler.getSafestCell();
+                        risk = sampler.getMineProbability(location);
                     }
-
-                    grid.add(makeGameSquare(location.getRow(), location.getCol(), HINT_IMG), location.getRow(), location.getCol());
+                }
+                if(location != null){
+                    statusLabel.setText(String.format("Guess: %.0f%% risk", 100 * risk));
                 }
             }
-            catch(MinesweeperException e){
-                e.printStackTrace();
+            if(location != null){
+                grid.add(makeGameSquare(location.getRow(), location.getCol(), HINT_IMG), location.getRow(), location.getCol());
             }
         });
 
@@ -189,9 +216,16 @@ public class MinesweeperGUI extends Application {
         //System.out.println("Updating: " + location.getRow() + ", " + location.getCol());
         
         if(gameBoard.getCellAtLocation(location).getType() == CellType.SAFE_UNCHECKED){
-            game.makeSelection(location);
+            List<Location> revealed = game.makeSelection(location);
             //System.out.println(gameBoard.getAdjacentCells(gameBoard.getCellAtLocation(location)));
             updateMovesLabel(movesLabel);
+
+            //Picking an empty cell opens up everything around it, show those cells too.
+            for(Location other : revealed){
+                if(!other.equals(location)){
+                    grid.add(uncoverBoard(other.getRow(), other.getCol()), other.getRow(), other.getCol());
+                }
+            }
             switch(gameBoard.getMinesAroundCell(gameBoard.getCellAtLocation(location))){
                 case 1:
                     button.setGraphic(new ImageView(ONE_IMG));
@@ -225,7 +259,8 @@ public class MinesweeperGUI extends Application {
             gameBoard.getCellAtLocation(location).setType(CellType.SAFE_CHECKED);
 
         } else if(gameBoard.getCellAtLocation(location).getType() == CellType.BOMB_UNCHECKED){
-            updateMovesLabel2(movesLabel); 
+            game.makeSelection(location);
+            updateMovesLabel(movesLabel);
 
             button.setGraphic(new ImageView(MINE_IMG));
             
@@ -237,7 +272,6 @@ public class MinesweeperGUI extends Application {
             statusLabel.setText("Boom! Better luck next time!");
             statusLabel.setFont(new Font("Arial", 15));
             statusLabel.setBackground(new Background(new BackgroundFill(Color.RED, new CornerRadii(10), Insets.EMPTY)));
-            game.setGameState(GameState.LOST);
             for(int i = 0; i<ROW_COUNT; i++){
                 for(int j = 0; j<COL_COUNT; j++){
                     grid.add(uncoverBoard(i, j), i, j);
@@ -245,12 +279,11 @@ public class MinesweeperGUI extends Application {
             }
         }
 
-        if(isWin(gameBoard)) {
+        if(game.getGameState() == GameState.WON) {
             //System.out.println("WE WON WE DID IT!");
             statusLabel.setText("You win!!!");
             statusLabel.setFont(new Font("Arial", 20));
             statusLabel.setBackground(new Background(new BackgroundFill(Color.GREEN, new CornerRadii(10), Insets.EMPTY)));
-            game.setGameState(GameState.WON);
             for(int i = 0; i<ROW_COUNT; i++){
                 for(int j = 0; j<COL_COUNT; j++){
                     grid.add(uncoverBoard(i, j), i, j);
@@ -259,36 +292,6 @@ public class MinesweeperGUI extends Application {
         }
     }
 
-    /**
-     * Function to check if the game has been won yet.
-     * @author Michael McI.
-     * @param gameBoard Current gameboard of cells to be passed in.
-     * @return true if game is won, false if not.
-     */
-    private static boolean isWin(Board gameBoard) {
-        List<Cell> totalCells = gameBoard.getTotalCells();
-        Set<Boolean> gameWinning = new HashSet<>();
-
-        for(int i = 0; i < totalCells.size(); i++){
-            if (totalCells.get(i).getType() == CellType.SAFE_UNCHECKED) {
-                return false;
-            }
-
-            else if (totalCells.get(i).getType() == CellType.SAFE_CHECKED) {
-                boolean flag = true;
-                gameWinning.add(flag);
-            }
-        }
-
-        if (gameWinning.contains(false)) {
-            return false;
-        }
-
-        else {
-            return true;
-        }
-    }
-
     /**
      * Method to print the entire board uncovered.
      * Used for win or lose condition.
@@ -409,16 +412,6 @@ public class MinesweeperGUI extends Application {
         movesLabel.setText("Moves: " + game.getMoveCount());
     }
 
-    /**
-     * Method which updates the move count when a mine is selected
-     * @author Bibhash
-     * @param movesLabel
-     */
-    private void updateMovesLabel2(Label movesLabel){
-        int count = game.getMoveCount() + 1;
-        movesLabel.setText("Moves: " + count);
-    }
-
     /**
      * Method which represents a cell as a button given its location and an image
      * @param row
@@ -7,22 +7,23 @@
 
 package minesweeper.view;
 
-import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
 import java.util.Scanner;
-import java.util.Set;
 
-import backtracker.Backtracker;
-import backtracker.Configuration;
+import backtracker.IterativeBacktracker;
 import minesweeper.model.Board;
-import minesweeper.model.Cell;
-import minesweeper.model.CellType;
+import minesweeper.model.DeductionEngine;
 import minesweeper.model.GameState;
+import minesweeper.model.LinearDeductionEngine;
 import minesweeper.model.Location;
 import minesweeper.model.Minesweeper;
 import minesweeper.model.MinesweeperException;
+import minesweeper.model.MonteCarloEngine;
 import minesweeper.model.MinesweeperSolver;
+import minesweeper.model.ProbabilityEngine;
+import minesweeper.model.SelectionOutcome;
 
 /**
  * Class to play a real game of Minesweeper using everything we wrote.
@@ -30,6 +31,15 @@ import minesweeper.model.MinesweeperSolver;
  * @author Michael McI.
  */
 public class MinesweeperGame {
+
+    //How long the solve command may search before giving up, in milliseconds.
+    private static final long SOLVE_TIME_LIMIT = 10_000;
+    //Hints enumerate a frontier component for up to this many steps before sampling instead.
+    private static final long HINT_NODE_LIMIT = 1_000_000;
+    //How long a guess may take, in milliseconds, working it out exactly and sampling together.
+    private static final long HINT_TIME_LIMIT = 200;
+    //Samples guesses, kept for every hint so its threads aren't started each time.
+    private static final ForkJoinPool HINT_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
     
     /**
      * Checks if game input is an integer or not.
@@ -62,32 +72,51 @@ public class MinesweeperGame {
     }
 
     /**
-     * Function to check if the game has been won yet.
-     * @author Michael McI.
-     * @param gameBoard Current gameboard of cells to be passed in.
-     * @return true if game is won, false if not.
+     * Gets the cells the uncovered numbers prove are safe. The quick rules are tried first
+     * and the row reduction only runs when they find nothing.
+     * @param engine the game's deduction engine.
+     * @param linear the game's linear deduction engine.
+     * @return the safe locations, empty if there are none.
      */
-    private static boolean isWin(Board gameBoard) {
-        List<Cell> totalCells = gameBoard.getTotalCells();
-        Set<Boolean> gameWinning = new HashSet<>();
-
-        for(int i = 0; i < totalCells.size(); i++){
-            if (totalCells.get(i).getType() == CellType.SAFE_UNCHECKED) {
-                return false;
-            }
+    private static List<Location> safeMoves(DeductionEngine engine, LinearDeductionEngine linear) {
+        List<Location> safe = engine.getSafeCells();
+        if (safe.isEmpty()) {
+            safe = linear.getSafeCells();
+        }
+        return safe;
+    }
 
-            else if (totalCells.get(i).getType() == CellType.SAFE_CHECKED) {
-                boolean flag = true;
-                gameWinning.add(flag);
+    /**
+     * Prints the guess least likely to be a mine. The chances are worked out exactly if that
+     * finishes in time, otherwise they are sampled for whatever is left of HINT_TIME_LIMIT.
+     * @param game the game to give a hint for.
+     */
+    private static void printGuess(Minesweeper game) {
+        long deadline = System.nanoTime() + HINT_TIME_LIMIT * 1_000_000L;
+        ProbabilityEngine odds = new ProbabilityEngine(game);
+        odds.setNodeLimit(HINT_NODE_LIMIT);
+        odds.setDeadline(deadline);
+        Location guess = odds.getSafestCell();
+        double risk = guess == null ? 0 : odds.getMineProbability(guess);
+        String how = "";
+
+        if (!odds.isExact()) {
+            MonteCarloEngine sampler = new MonteCarloEngine(game, HINT_POOL, new SplittableRandom());
+            sampler.setTimeLimit(Math.max(0, (deadline - System.nanoTime()) / 1_000_000L));
+            sampler.sample();
+            if (sampler.getSafestCell() != null) {
+                guess = sampler.getSafestCell();
+                risk = sampler.getMineProbability(guess);
+                how = " estimated";
             }
         }
 
-        if (gameWinning.contains(false)) {
-            return false;
+        if (guess != null) {
+            System.out.printf("No certain move. Safest guess is %s (%.1f%%%s chance of a mine).%n",
+                guess, 100 * risk, how);
         }
-
         else {
-            return true;
+            System.out.println("No available hints.");
         }
     }
 
@@ -104,6 +133,8 @@ public class MinesweeperGame {
         Board gameBoard = new Board(rows, columns);
         Minesweeper game = new Minesweeper(rows, columns, gameBoard);
         gameBoard.makeBoard();
+        DeductionEngine engine = new DeductionEngine(game);
+        LinearDeductionEngine linear = new LinearDeductionEngine(game);
 
         System.out.println("Mines: " + game.getMineCount());
 
@@ -128,16 +159,15 @@ public class MinesweeperGame {
             }
 
             else if (commands[0].equals("hint")) {
-                // return a valid location that isn't a mine.
-                // System.out.println("Give " + (0, 2) + "a try.");
-                Collection<Location> hints = game.getPossibleSelections();
-                if (hints.iterator().hasNext()) {
-                    Location first = hints.iterator().next();
-                    System.out.println("Give " + first + " a try.");
+                // return a location the uncovered numbers prove isn't a mine.
+                List<Location> hints = safeMoves(engine, linear);
+                if (!hints.isEmpty()) {
+                    System.out.println("Give " + hints.get(0) + " a try.");
                 }
                 
                 else {
-                    System.out.println("No available hints.");
+                    // nothing is certain, point at the guess least likely to be a mine.
+                    printGuess(game);
                 }
 
                 System.out.println(game);
@@ -158,6 +188,8 @@ public class MinesweeperGame {
                 gameBoard = newBoard;
                 game = newGame;
                 gameBoard.makeBoard();
+                engine = new DeductionEngine(game);
+                linear = new LinearDeductionEngine(game);
                 System.out.println("Resetting to a new game.");
 
                 System.out.println(game);
@@ -184,23 +216,17 @@ public class MinesweeperGame {
                     //if true, makeSelection.
                     //if selection is a bomb or wins the game, print the right message.
                     //if false, print error message, loop back, and ask again for valid input.
-                    try{
-                        if(gameBoard.isRealLocation(location)){
-                            if(gameBoard.getCellAtLocation(location).getType() == CellType.SAFE_UNCHECKED){
-                                game.makeSelection(location);
-                                game.setGameState(GameState.IN_PROGRESS);
-                            } else if(gameBoard.getCellAtLocation(location).getType() == CellType.BOMB_UNCHECKED){
-                                game.setGameState(GameState.LOST);
-                            }
-                        }
-                        // ADDED THIS TO TEST GET SYMBOL. CAN BE REMOVED.
-                        System.out.println(game.getSymbol(location));
-                    } catch(MinesweeperException e){
-                        System.out.println("That is invalid " + e);
+                    //select moves the game to IN_PROGRESS, WON or LOST.
+                    SelectionOutcome outcome = SelectionOutcome.of(game.select(row, col));
+                    if (outcome == SelectionOutcome.INVALID) {
+                        System.out.println("That is invalid, " + location + " is not on the board.");
+                    }
+                    else if (outcome == SelectionOutcome.ALREADY_OPEN) {
+                        System.out.println(location + " is already uncovered.");
                     }
 
                     //check if gameState won or lost.
-                    if(game.getGameState() == GameState.WON || isWin(gameBoard) == true) {
+                    if(game.getGameState() == GameState.WON) {
                         System.out.println("Congratulations!");
                         System.out.println(game.uncoverBoard(game.getGameState()));
                         
@@ -227,6 +253,8 @@ public class MinesweeperGame {
                                 gameBoard = newBoard;
                                 game = newGame;
                                 gameBoard.makeBoard();
+                                engine = new DeductionEngine(game);
+                                linear = new LinearDeductionEngine(game);
                                 System.out.println("Resetting to a new game.");
                                 flag = true;
                             }
@@ -266,6 +294,8 @@ public class MinesweeperGame {
                                 gameBoard = newBoard;
                                 game = newGame;
                                 gameBoard.makeBoard();
+                                engine = new DeductionEngine(game);
+                                linear = new LinearDeductionEngine(game);
                                 System.out.println("Resetting to a new game.");
                                 flag = true;
                             }
@@ -290,26 +320,46 @@ public class MinesweeperGame {
             else if(commands[0].equals("solve")){
                 if(game.getGameState() == GameState.NOT_STARTED) {
                     System.out.println("Cannot solve without making any moves");
-                    continue;
                 }
-                Backtracker backtracker = new Backtracker(true);
-                Configuration config = new MinesweeperSolver(game);
-                MinesweeperSolver solution = (MinesweeperSolver) backtracker.solve(config);
-                if(solution == null){
-                    System.out.println("no solution");
-                } 
                 else{
-                    for(Location move : solution.getPreviousMoves()){
-                        // System.out.println("Selection: " + move);
-                        game.makeSelection(move);
-                        // System.out.println(game);
+                    //Plays every move the numbers prove is safe, only searching once they run out.
+                    List<Location> safe = safeMoves(engine, linear);
+                    while(!safe.isEmpty()){
+                        for(Location move : safe){
+                            game.makeSelection(move);
+                        }
+                        safe = safeMoves(engine, linear);
+                    }
+                    if(game.getPlayerView().getCoveredCount() > game.getMineCount()){
+                        IterativeBacktracker backtracker = new IterativeBacktracker(false);
+                        backtracker.setTimeLimit(SOLVE_TIME_LIMIT);
+                        //Searches a copy of the game in place, then replays the moves it found.
+                        MinesweeperSolver config = new MinesweeperSolver(new Minesweeper(game));
+                        List<Location> solution = backtracker.solveInPlace(config);
+                        if(solution == null){
+                            System.out.println("no solution (" + backtracker.getStatus().getStatus() + ")");
+                        } 
+                        else{
+                            for(Location move : solution){
+                                game.makeSelection(move);
+                            }
+                        }
                     }
                 }
+
+                System.out.println(game);
+                System.out.print("Enter command: ");
+                input = scanner.nextLine();
+                commands = input.trim().split(" ");
             }
 
             else {
                 //Not a valid command! Prints error message.
                 System.out.println("Not a valid command. Please try again.");
+
+                System.out.print("Enter command: ");
+                input = scanner.nextLine();
+                commands = input.trim().split(" ");
             }
             
             exitCondition = false;